@@ -1,26 +1,61 @@
 package com.enterprise.notification.config;
 
+import com.enterprise.notification.domain.enums.NotificationType;
+import com.enterprise.notification.kafka.NotificationTopics;
 import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
 import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.KafkaAdmin;
+
+import java.util.ArrayList;
+import java.util.List;
 
 @Configuration
 public class KafkaConfig {
     
+    // Upper bound on consumer parallelism across all replicas; listener concurrency is set per pod
+    @Value("${notification.kafka.partitions:12}")
+    private int partitions;
+    
+    @Value("${notification.kafka.replicas:1}")
+    private int replicas;
+    
+    // Request, retry, high and bulk topics per channel; a topic's partition count caps its listener concurrency.
+    // The high topics default to notification.kafka.lanes.high.partitions, overridable per channel.
+    @Bean
+    public KafkaAdmin.NewTopics channelTopics(Environment environment) {
+        int highPartitions = environment.getProperty("notification.kafka.lanes.high.partitions", Integer.class, partitions);
+        List<NewTopic> topics = new ArrayList<>();
+        for (NotificationType type : NotificationType.values()) {
+            String prefix = "notification.kafka.channels." + NotificationTopics.channel(type);
+            int channelPartitions = environment.getProperty(prefix + ".partitions", Integer.class, partitions);
+            topics.add(topic(NotificationTopics.request(type), channelPartitions));
+            topics.add(topic(NotificationTopics.retry(type), channelPartitions));
+            topics.add(topic(NotificationTopics.bulk(type), channelPartitions));
+            topics.add(topic(NotificationTopics.high(type),
+                environment.getProperty(prefix + ".high.partitions", Integer.class, highPartitions)));
+        }
+        return new KafkaAdmin.NewTopics(topics.toArray(NewTopic[]::new));
+    }
+    
+    // Shared topics from before the per-channel split, kept until the legacy listener has drained them
     @Bean
     public NewTopic notificationRequestTopic() {
-        return TopicBuilder.name("notifications.request")
-            .partitions(3)
-            .replicas(1)
-            .build();
+        return topic(NotificationTopics.LEGACY_REQUEST, partitions);
     }
     
     @Bean
     public NewTopic notificationRetryTopic() {
-        return TopicBuilder.name("notifications.retry")
-            .partitions(3)
-            .replicas(1)
+        return topic(NotificationTopics.LEGACY_RETRY, partitions);
+    }
+    
+    private NewTopic topic(String name, int topicPartitions) {
+        return TopicBuilder.name(name)
+            .partitions(topicPartitions)
+            .replicas(replicas)
             .build();
     }
 }
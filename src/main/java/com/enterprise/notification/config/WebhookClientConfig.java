@@ -0,0 +1,27 @@
+package com.enterprise.notification.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+
+@Configuration
+public class WebhookClientConfig {
+    
+    @Value("${notification.providers.webhook.connect-timeout:2000}")
+    private long connectTimeoutMillis;
+    
+    // One shared client keeps a connection pool per host; HTTP/2 endpoints multiplex over a single connection
+    @Bean(destroyMethod = "close")
+    public HttpClient webhookHttpClient() {
+        return HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_2)
+            .connectTimeout(Duration.ofMillis(connectTimeoutMillis))
+            .followRedirects(HttpClient.Redirect.NEVER)
+            .executor(Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("webhook-", 0).factory()))
+            .build();
+    }
+}
@@ -0,0 +1,44 @@
+package com.enterprise.notification.controller;
+
+import com.enterprise.notification.domain.entity.DeviceToken;
+import com.enterprise.notification.dto.DeviceTokenRequest;
+import com.enterprise.notification.service.DeviceTokenService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/devices")
+@RequiredArgsConstructor
+@Tag(name = "Devices", description = "Push device token registration APIs")
+public class DeviceTokenController {
+    
+    private final DeviceTokenService deviceTokenService;
+    
+    @GetMapping("/{userId}")
+    @Operation(summary = "List a user's registered device tokens")
+    public ResponseEntity<List<DeviceToken>> getTokens(@PathVariable String userId) {
+        return ResponseEntity.ok(deviceTokenService.getTokens(userId));
+    }
+    
+    @PostMapping("/{userId}")
+    @Operation(summary = "Register a device token for push notifications")
+    public ResponseEntity<DeviceToken> register(
+        @PathVariable String userId,
+        @Valid @RequestBody DeviceTokenRequest request
+    ) {
+        return ResponseEntity.ok(deviceTokenService.register(userId, request));
+    }
+    
+    @DeleteMapping("/{userId}/{token}")
+    @Operation(summary = "Unregister a device token")
+    public ResponseEntity<Void> unregister(@PathVariable String userId, @PathVariable String token) {
+        deviceTokenService.unregister(userId, token);
+        return ResponseEntity.ok().build();
+    }
+}
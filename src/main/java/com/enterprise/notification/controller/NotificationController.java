@@ -3,12 +3,17 @@ package com.enterprise.notification.controller;
 import com.enterprise.notification.domain.enums.NotificationStatus;
 import com.enterprise.notification.domain.enums.NotificationType;
 import com.enterprise.notification.dto.BulkNotificationRequest;
+import com.enterprise.notification.dto.DeliveryAttemptResponse;
 import com.enterprise.notification.dto.NotificationRequest;
 import com.enterprise.notification.dto.NotificationResponse;
+import com.enterprise.notification.service.BulkIngestService;
+import com.enterprise.notification.service.DeliveryLogService;
 import com.enterprise.notification.service.NotificationService;
 import io.swagger.v3.oas.annotations.Operation;
 
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
@@ -19,6 +24,7 @@ import org.springframework.http.ResponseEntity;
 
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
@@ -30,6 +36,8 @@ import java.util.UUID;
 public class NotificationController {
     
     private final NotificationService notificationService;
+    private final BulkIngestService bulkIngestService;
+    private final DeliveryLogService deliveryLogService;
     
     @PostMapping("/send")
     @Operation(summary = "Send a notification")
@@ -47,6 +55,14 @@ public class NotificationController {
             .body(notificationService.sendBulkNotifications(request.getNotifications()));
     }
     
+    @PostMapping(value = "/bulk-stream", consumes = "application/x-ndjson", produces = "application/x-ndjson")
+    @Operation(summary = "Stream bulk notifications as NDJSON, one result line per input line")
+    public void streamBulkNotifications(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType("application/x-ndjson");
+        bulkIngestService.ingest(request.getInputStream(), response.getOutputStream());
+    }
+    
     @PostMapping("/schedule")
     @Operation(summary = "Schedule a notification")
     public ResponseEntity<NotificationResponse> scheduleNotification(@Valid @RequestBody NotificationRequest request) {
@@ -60,6 +76,12 @@ public class NotificationController {
         return ResponseEntity.ok(notificationService.getNotification(id));
     }
     
+    @GetMapping("/{id}/attempts")
+    @Operation(summary = "Get delivery attempts for a notification, newest first")
+    public ResponseEntity<List<DeliveryAttemptResponse>> getDeliveryAttempts(@PathVariable UUID id) {
+        return ResponseEntity.ok(deliveryLogService.getDeliveryAttempts(id));
+    }
+    
     @GetMapping("/user/{userId}")
     @Operation(summary = "Get notifications by user ID")
     public ResponseEntity<Page<NotificationResponse>> getNotificationsByUser(
@@ -24,9 +24,13 @@ public class DeliveryLog {
     @Column(name = "notification_id", nullable = false)
     private UUID notificationId;
     
+    // Only set on rows written before payloads moved to delivery_payloads
     @Column(name = "request_payload", columnDefinition = "TEXT")
     private String requestPayload;
     
+    @Column(name = "request_payload_hash", length = 64)
+    private String requestPayloadHash;
+    
     @Column(name = "response_payload", columnDefinition = "TEXT")
     private String responsePayload;
     
@@ -0,0 +1,36 @@
+package com.enterprise.notification.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Request payloads stored once per distinct content and referenced from delivery_logs by hash
+@Entity
+@Table(name = "delivery_payloads")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeliveryPayload {
+    
+    // Hex SHA-256 of the uncompressed JSON
+    @Id
+    @Column(length = 64)
+    private String hash;
+    
+    @Column(nullable = false)
+    private String compression;
+    
+    @Column(nullable = false)
+    private byte[] content;
+    
+    @Column(name = "original_size", nullable = false)
+    private Integer originalSize;
+    
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
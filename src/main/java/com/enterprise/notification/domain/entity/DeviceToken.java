@@ -0,0 +1,46 @@
+package com.enterprise.notification.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "device_tokens")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeviceToken {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "user_id", nullable = false)
+    private String userId;
+    
+    @Column(nullable = false, unique = true)
+    private String token;
+    
+    private String platform;
+    
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+    
+    @Column(name = "last_seen_at", nullable = false)
+    private LocalDateTime lastSeenAt;
+    
+    // Set when the push provider reports the token dead; cleared when the token is registered again
+    @Column(name = "invalidated_at")
+    private LocalDateTime invalidatedAt;
+    
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        lastSeenAt = LocalDateTime.now();
+    }
+}
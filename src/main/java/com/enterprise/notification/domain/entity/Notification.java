@@ -1,5 +1,6 @@
 package com.enterprise.notification.domain.entity;
 
+import com.enterprise.notification.domain.enums.NotificationPriority;
 import com.enterprise.notification.domain.enums.NotificationStatus;
 import com.enterprise.notification.domain.enums.NotificationType;
 import jakarta.persistence.*;
@@ -37,6 +38,12 @@ public class Notification {
     @Column(nullable = false)
     private NotificationStatus status;
     
+    // Selects the Kafka lane; messages published before the column existed deserialize as NORMAL
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    @Builder.Default
+    private NotificationPriority priority = NotificationPriority.NORMAL;
+    
     @Column(name = "template_id")
     private Long templateId;
     
@@ -53,6 +60,15 @@ public class Notification {
     @Column(nullable = false)
     private Integer retries = 0;
     
+    @Column(name = "next_attempt_at")
+    private LocalDateTime nextAttemptAt;
+    
+    @Column(name = "claimed_by")
+    private String claimedBy;
+    
+    @Column(name = "lease_expires_at")
+    private LocalDateTime leaseExpiresAt;
+    
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
     
@@ -0,0 +1,52 @@
+package com.enterprise.notification.domain.entity;
+
+import com.enterprise.notification.domain.enums.NotificationStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// Outcome of a push notification on one device, so retries only resend to devices that have not accepted it
+@Entity
+@Table(name = "push_deliveries")
+@IdClass(PushDelivery.Key.class)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PushDelivery {
+    
+    @Id
+    @Column(name = "notification_id", nullable = false)
+    private UUID notificationId;
+    
+    @Id
+    @Column(name = "device_token", nullable = false, length = 512)
+    private String deviceToken;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private NotificationStatus status;
+    
+    @Column(length = 64)
+    private String error;
+    
+    @Column(nullable = false)
+    private Integer attempts;
+    
+    @Column(name = "last_attempt_at", nullable = false)
+    private LocalDateTime lastAttemptAt;
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private UUID notificationId;
+        private String deviceToken;
+    }
+}
@@ -0,0 +1,52 @@
+package com.enterprise.notification.domain.entity;
+
+import com.enterprise.notification.domain.enums.NotificationStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// Outcome of a webhook notification at one endpoint, so retries can skip endpoints that already accepted it
+@Entity
+@Table(name = "webhook_deliveries")
+@IdClass(WebhookDelivery.Key.class)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WebhookDelivery {
+    
+    @Id
+    @Column(name = "notification_id", nullable = false)
+    private UUID notificationId;
+    
+    @Id
+    @Column(name = "endpoint_id", nullable = false)
+    private Long endpointId;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private NotificationStatus status;
+    
+    @Column(name = "status_code")
+    private Integer statusCode;
+    
+    @Column(nullable = false)
+    private Integer attempts;
+    
+    @Column(name = "last_attempt_at", nullable = false)
+    private LocalDateTime lastAttemptAt;
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private UUID notificationId;
+        private Long endpointId;
+    }
+}
@@ -10,6 +10,7 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "webhook_endpoints")
+@EntityListeners(WebhookEndpointListener.class)
 @Data
 @Builder
 @NoArgsConstructor
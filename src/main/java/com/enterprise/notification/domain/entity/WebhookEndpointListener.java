@@ -0,0 +1,24 @@
+package com.enterprise.notification.domain.entity;
+
+import com.enterprise.notification.domain.event.WebhookEndpointChangedEvent;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+// Resolved through Spring by Hibernate; caches subscribe to the event instead of the entity depending on them
+@Component
+@RequiredArgsConstructor
+public class WebhookEndpointListener {
+    
+    private final ApplicationEventPublisher eventPublisher;
+    
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(WebhookEndpoint endpoint) {
+        eventPublisher.publishEvent(new WebhookEndpointChangedEvent(endpoint.getUserId()));
+    }
+}
@@ -0,0 +1,7 @@
+package com.enterprise.notification.domain.enums;
+
+public enum NotificationPriority {
+    HIGH,
+    NORMAL,
+    BULK
+}
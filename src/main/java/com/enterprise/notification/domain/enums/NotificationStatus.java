@@ -2,9 +2,13 @@ package com.enterprise.notification.domain.enums;
 
 public enum NotificationStatus {
     PENDING,
+    CLAIMED,
+    QUEUED,
     PROCESSING,
     SENT,
     FAILED,
     RETRYING,
+    // Deferred by a rate limit or open circuit before any attempt was made; picked up again at next_attempt_at
+    THROTTLED,
     CANCELLED
 }
@@ -0,0 +1,5 @@
+package com.enterprise.notification.domain.event;
+
+// Published in the writing transaction whenever a webhook endpoint row is inserted, updated or deleted through JPA
+public record WebhookEndpointChangedEvent(String userId) {
+}
@@ -0,0 +1,18 @@
+package com.enterprise.notification.dto;
+
+import com.enterprise.notification.domain.enums.NotificationStatus;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.UUID;
+
+@Data
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkItemResult {
+    private Long line;
+    private UUID id;
+    private NotificationStatus status;
+    private String error;
+}
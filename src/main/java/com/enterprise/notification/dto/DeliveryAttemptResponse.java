@@ -0,0 +1,17 @@
+package com.enterprise.notification.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+public class DeliveryAttemptResponse {
+    private Long id;
+    private Integer attempt;
+    private Integer statusCode;
+    private String requestPayload;
+    private String responsePayload;
+    private LocalDateTime createdAt;
+}
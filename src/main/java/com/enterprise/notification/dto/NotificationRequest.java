@@ -1,5 +1,6 @@
 package com.enterprise.notification.dto;
 
+import com.enterprise.notification.domain.enums.NotificationPriority;
 import com.enterprise.notification.domain.enums.NotificationType;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -17,6 +18,9 @@ public class NotificationRequest {
     @NotNull(message = "Notification type is required")
     private NotificationType type;
     
+    // HIGH for transactional messages such as OTPs, BULK for campaigns; NORMAL when omitted
+    private NotificationPriority priority;
+    
     private Long templateId;
     
     @NotNull(message = "Payload is required")
@@ -1,5 +1,6 @@
 package com.enterprise.notification.dto;
 
+import com.enterprise.notification.domain.enums.NotificationPriority;
 import com.enterprise.notification.domain.enums.NotificationStatus;
 import com.enterprise.notification.domain.enums.NotificationType;
 import lombok.Builder;
@@ -16,6 +17,7 @@ public class NotificationResponse {
     private String userId;
     private NotificationType type;
     private NotificationStatus status;
+    private NotificationPriority priority;
     private Long templateId;
     private Map<String, Object> payload;
     private LocalDateTime scheduledAt;
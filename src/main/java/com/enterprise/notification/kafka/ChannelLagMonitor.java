@@ -0,0 +1,136 @@
+package com.enterprise.notification.kafka;
+
+import com.enterprise.notification.domain.enums.NotificationType;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.ListOffsetsResult.ListOffsetsResultInfo;
+import org.apache.kafka.clients.admin.OffsetSpec;
+import org.apache.kafka.clients.admin.TopicDescription;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.KafkaFuture;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.UnknownTopicOrPartitionException;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Consumer lag per channel and lane, i.e. messages published but not yet committed by that lane's listeners
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ChannelLagMonitor {
+    
+    private static final long TIMEOUT_SECONDS = 5;
+    
+    private final KafkaAdmin kafkaAdmin;
+    private final MeterRegistry meterRegistry;
+    
+    private final List<GroupLag> lag = new ArrayList<>();
+    private AdminClient adminClient;
+    
+    @PostConstruct
+    public void init() {
+        adminClient = AdminClient.create(kafkaAdmin.getConfigurationProperties());
+        for (NotificationType type : NotificationType.values()) {
+            String channel = NotificationTopics.channel(type);
+            register(NotificationTopics.groupId(type), List.of(NotificationTopics.topics(type)), channel, "normal");
+            register(NotificationTopics.highGroupId(type), List.of(NotificationTopics.high(type)), channel, "high");
+            register(NotificationTopics.bulkGroupId(type), List.of(NotificationTopics.bulk(type)), channel, "bulk");
+        }
+    }
+    
+    @PreDestroy
+    public void close() {
+        adminClient.close();
+    }
+    
+    @Scheduled(fixedDelayString = "${notification.kafka.lag-interval:15000}")
+    public void refresh() {
+        for (GroupLag groupLag : lag) {
+            try {
+                groupLag.value().set(lagOf(groupLag.groupId(), groupLag.topics()));
+            } catch (Exception e) {
+                log.warn("Failed to read consumer lag for group {} on {}", groupLag.groupId(), groupLag.topics(), e);
+            }
+        }
+    }
+    
+    private void register(String groupId, List<String> topics, String channel, String lane) {
+        AtomicLong groupLag = new AtomicLong();
+        lag.add(new GroupLag(groupId, topics, groupLag));
+        Gauge.builder("notification.kafka.lag", groupLag, AtomicLong::get)
+            .description("Messages on the group's topics not yet consumed")
+            .tag("channel", channel)
+            .tag("lane", lane)
+            .register(meterRegistry);
+    }
+    
+    // Covers every partition of the group's topics. A partition the group has not committed on yet counts from its
+    // earliest retained offset, which is where a new group starts reading.
+    private long lagOf(String groupId, List<String> topics) throws Exception {
+        List<TopicPartition> partitions = partitionsOf(topics);
+        if (partitions.isEmpty()) {
+            return 0;
+        }
+        
+        Map<TopicPartition, OffsetAndMetadata> committed = adminClient.listConsumerGroupOffsets(groupId)
+            .partitionsToOffsetAndMetadata()
+            .get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        Map<TopicPartition, ListOffsetsResultInfo> ends = offsets(partitions, OffsetSpec.latest());
+        Map<TopicPartition, ListOffsetsResultInfo> starts = offsets(partitions, OffsetSpec.earliest());
+        
+        long total = 0;
+        for (TopicPartition partition : partitions) {
+            ListOffsetsResultInfo end = ends.get(partition);
+            if (end == null) {
+                continue;
+            }
+            OffsetAndMetadata position = committed.get(partition);
+            ListOffsetsResultInfo start = starts.get(partition);
+            long consumed = position != null ? position.offset() : start != null ? start.offset() : 0;
+            total += Math.max(0, end.offset() - consumed);
+        }
+        return total;
+    }
+    
+    // Topics that do not exist yet are skipped rather than failing the whole group
+    private List<TopicPartition> partitionsOf(List<String> topics) throws Exception {
+        Map<String, KafkaFuture<TopicDescription>> descriptions = adminClient.describeTopics(topics).topicNameValues();
+        List<TopicPartition> partitions = new ArrayList<>();
+        for (Map.Entry<String, KafkaFuture<TopicDescription>> entry : descriptions.entrySet()) {
+            try {
+                entry.getValue().get(TIMEOUT_SECONDS, TimeUnit.SECONDS).partitions()
+                    .forEach(partition -> partitions.add(new TopicPartition(entry.getKey(), partition.partition())));
+            } catch (ExecutionException e) {
+                if (!(e.getCause() instanceof UnknownTopicOrPartitionException)) {
+                    throw e;
+                }
+            }
+        }
+        return partitions;
+    }
+    
+    private Map<TopicPartition, ListOffsetsResultInfo> offsets(List<TopicPartition> partitions, OffsetSpec spec) throws Exception {
+        return adminClient
+            .listOffsets(partitions.stream().collect(Collectors.toMap(Function.identity(), partition -> spec)))
+            .all()
+            .get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    }
+    
+    private record GroupLag(String groupId, List<String> topics, AtomicLong value) {
+    }
+}
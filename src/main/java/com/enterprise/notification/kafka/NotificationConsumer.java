@@ -7,6 +7,15 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+
+// Batch listeners: offsets for a poll are committed only after dispatchAll returns, i.e. once the status of every
+// notification in the batch has been written. Delivery logs are write-behind and not covered by that guarantee.
+// A failed dispatch is recorded and retried through the retry queue; the batch only fails and is redelivered
+// when that status cannot be written either.
+// Each channel has its own container, consumer group, concurrency and poll size (see NotificationTopics) per lane,
+// so a slow provider only backs up its own channel. HIGH and BULK containers take their concurrency and poll size
+// from notification.kafka.lanes, overridable per channel under notification.kafka.channels.<channel>.high/.bulk.
 @Component
 @RequiredArgsConstructor
 @Slf4j
@@ -14,15 +23,187 @@ public class NotificationConsumer {
     
     private final NotificationDispatcherService dispatcherService;
     
-    @KafkaListener(topics = "notifications.request", groupId = "notification-service")
-    public void consumeNotificationRequest(Notification notification) {
-        log.info("Received notification request: {}", notification.getId());
-        dispatcherService.dispatch(notification);
+    @KafkaListener(
+        topics = "#{T(com.enterprise.notification.kafka.NotificationTopics).topics('EMAIL')}",
+        groupId = "#{T(com.enterprise.notification.kafka.NotificationTopics).groupId('EMAIL')}",
+        clientIdPrefix = "notification-email",
+        concurrency = "${notification.kafka.channels.email.concurrency:3}",
+        properties = "max.poll.records=${notification.kafka.channels.email.max-poll-records:500}"
+    )
+    public void consumeEmail(List<Notification> notifications) {
+        dispatch("email", notifications);
+    }
+    
+    @KafkaListener(
+        topics = "#{T(com.enterprise.notification.kafka.NotificationTopics).topics('SMS')}",
+        groupId = "#{T(com.enterprise.notification.kafka.NotificationTopics).groupId('SMS')}",
+        clientIdPrefix = "notification-sms",
+        concurrency = "${notification.kafka.channels.sms.concurrency:3}",
+        properties = "max.poll.records=${notification.kafka.channels.sms.max-poll-records:500}"
+    )
+    public void consumeSms(List<Notification> notifications) {
+        dispatch("sms", notifications);
+    }
+    
+    @KafkaListener(
+        topics = "#{T(com.enterprise.notification.kafka.NotificationTopics).topics('PUSH')}",
+        groupId = "#{T(com.enterprise.notification.kafka.NotificationTopics).groupId('PUSH')}",
+        clientIdPrefix = "notification-push",
+        concurrency = "${notification.kafka.channels.push.concurrency:3}",
+        properties = "max.poll.records=${notification.kafka.channels.push.max-poll-records:500}"
+    )
+    public void consumePush(List<Notification> notifications) {
+        dispatch("push", notifications);
+    }
+    
+    @KafkaListener(
+        topics = "#{T(com.enterprise.notification.kafka.NotificationTopics).topics('IN_APP')}",
+        groupId = "#{T(com.enterprise.notification.kafka.NotificationTopics).groupId('IN_APP')}",
+        clientIdPrefix = "notification-in-app",
+        concurrency = "${notification.kafka.channels.in-app.concurrency:3}",
+        properties = "max.poll.records=${notification.kafka.channels.in-app.max-poll-records:500}"
+    )
+    public void consumeInApp(List<Notification> notifications) {
+        dispatch("in-app", notifications);
+    }
+    
+    @KafkaListener(
+        topics = "#{T(com.enterprise.notification.kafka.NotificationTopics).topics('WEBHOOK')}",
+        groupId = "#{T(com.enterprise.notification.kafka.NotificationTopics).groupId('WEBHOOK')}",
+        clientIdPrefix = "notification-webhook",
+        concurrency = "${notification.kafka.channels.webhook.concurrency:3}",
+        properties = "max.poll.records=${notification.kafka.channels.webhook.max-poll-records:500}"
+    )
+    public void consumeWebhook(List<Notification> notifications) {
+        dispatch("webhook", notifications);
+    }
+    
+    // HIGH priority traffic, one container per channel; small polls keep one slow send from holding back the rest
+    // for long, and a slow provider only holds back its own channel's OTPs
+    @KafkaListener(
+        topics = "#{T(com.enterprise.notification.kafka.NotificationTopics).high('EMAIL')}",
+        groupId = "#{T(com.enterprise.notification.kafka.NotificationTopics).highGroupId('EMAIL')}",
+        clientIdPrefix = "notification-email-high",
+        concurrency = "${notification.kafka.channels.email.high.concurrency:${notification.kafka.lanes.high.concurrency:1}}",
+        properties = "max.poll.records=${notification.kafka.channels.email.high.max-poll-records:${notification.kafka.lanes.high.max-poll-records:50}}"
+    )
+    public void consumeEmailHighPriority(List<Notification> notifications) {
+        dispatch("email high priority", notifications);
+    }
+    
+    @KafkaListener(
+        topics = "#{T(com.enterprise.notification.kafka.NotificationTopics).high('SMS')}",
+        groupId = "#{T(com.enterprise.notification.kafka.NotificationTopics).highGroupId('SMS')}",
+        clientIdPrefix = "notification-sms-high",
+        concurrency = "${notification.kafka.channels.sms.high.concurrency:${notification.kafka.lanes.high.concurrency:1}}",
+        properties = "max.poll.records=${notification.kafka.channels.sms.high.max-poll-records:${notification.kafka.lanes.high.max-poll-records:50}}"
+    )
+    public void consumeSmsHighPriority(List<Notification> notifications) {
+        dispatch("sms high priority", notifications);
+    }
+    
+    @KafkaListener(
+        topics = "#{T(com.enterprise.notification.kafka.NotificationTopics).high('PUSH')}",
+        groupId = "#{T(com.enterprise.notification.kafka.NotificationTopics).highGroupId('PUSH')}",
+        clientIdPrefix = "notification-push-high",
+        concurrency = "${notification.kafka.channels.push.high.concurrency:${notification.kafka.lanes.high.concurrency:1}}",
+        properties = "max.poll.records=${notification.kafka.channels.push.high.max-poll-records:${notification.kafka.lanes.high.max-poll-records:50}}"
+    )
+    public void consumePushHighPriority(List<Notification> notifications) {
+        dispatch("push high priority", notifications);
+    }
+    
+    @KafkaListener(
+        topics = "#{T(com.enterprise.notification.kafka.NotificationTopics).high('IN_APP')}",
+        groupId = "#{T(com.enterprise.notification.kafka.NotificationTopics).highGroupId('IN_APP')}",
+        clientIdPrefix = "notification-in-app-high",
+        concurrency = "${notification.kafka.channels.in-app.high.concurrency:${notification.kafka.lanes.high.concurrency:1}}",
+        properties = "max.poll.records=${notification.kafka.channels.in-app.high.max-poll-records:${notification.kafka.lanes.high.max-poll-records:50}}"
+    )
+    public void consumeInAppHighPriority(List<Notification> notifications) {
+        dispatch("in-app high priority", notifications);
+    }
+    
+    @KafkaListener(
+        topics = "#{T(com.enterprise.notification.kafka.NotificationTopics).high('WEBHOOK')}",
+        groupId = "#{T(com.enterprise.notification.kafka.NotificationTopics).highGroupId('WEBHOOK')}",
+        clientIdPrefix = "notification-webhook-high",
+        concurrency = "${notification.kafka.channels.webhook.high.concurrency:${notification.kafka.lanes.high.concurrency:1}}",
+        properties = "max.poll.records=${notification.kafka.channels.webhook.high.max-poll-records:${notification.kafka.lanes.high.max-poll-records:50}}"
+    )
+    public void consumeWebhookHighPriority(List<Notification> notifications) {
+        dispatch("webhook high priority", notifications);
+    }
+    
+    // BULK traffic, one container per channel so a campaign on a slow provider does not hold back the other channels'
+    // campaigns.
+    @KafkaListener(
+        topics = "#{T(com.enterprise.notification.kafka.NotificationTopics).bulk('EMAIL')}",
+        groupId = "#{T(com.enterprise.notification.kafka.NotificationTopics).bulkGroupId('EMAIL')}",
+        clientIdPrefix = "notification-email-bulk",
+        concurrency = "${notification.kafka.channels.email.bulk.concurrency:${notification.kafka.lanes.bulk.concurrency:1}}",
+        properties = "max.poll.records=${notification.kafka.channels.email.bulk.max-poll-records:${notification.kafka.lanes.bulk.max-poll-records:500}}"
+    )
+    public void consumeEmailBulk(List<Notification> notifications) {
+        dispatch("email bulk", notifications);
+    }
+    
+    @KafkaListener(
+        topics = "#{T(com.enterprise.notification.kafka.NotificationTopics).bulk('SMS')}",
+        groupId = "#{T(com.enterprise.notification.kafka.NotificationTopics).bulkGroupId('SMS')}",
+        clientIdPrefix = "notification-sms-bulk",
+        concurrency = "${notification.kafka.channels.sms.bulk.concurrency:${notification.kafka.lanes.bulk.concurrency:1}}",
+        properties = "max.poll.records=${notification.kafka.channels.sms.bulk.max-poll-records:${notification.kafka.lanes.bulk.max-poll-records:500}}"
+    )
+    public void consumeSmsBulk(List<Notification> notifications) {
+        dispatch("sms bulk", notifications);
+    }
+    
+    @KafkaListener(
+        topics = "#{T(com.enterprise.notification.kafka.NotificationTopics).bulk('PUSH')}",
+        groupId = "#{T(com.enterprise.notification.kafka.NotificationTopics).bulkGroupId('PUSH')}",
+        clientIdPrefix = "notification-push-bulk",
+        concurrency = "${notification.kafka.channels.push.bulk.concurrency:${notification.kafka.lanes.bulk.concurrency:1}}",
+        properties = "max.poll.records=${notification.kafka.channels.push.bulk.max-poll-records:${notification.kafka.lanes.bulk.max-poll-records:500}}"
+    )
+    public void consumePushBulk(List<Notification> notifications) {
+        dispatch("push bulk", notifications);
+    }
+    
+    @KafkaListener(
+        topics = "#{T(com.enterprise.notification.kafka.NotificationTopics).bulk('IN_APP')}",
+        groupId = "#{T(com.enterprise.notification.kafka.NotificationTopics).bulkGroupId('IN_APP')}",
+        clientIdPrefix = "notification-in-app-bulk",
+        concurrency = "${notification.kafka.channels.in-app.bulk.concurrency:${notification.kafka.lanes.bulk.concurrency:1}}",
+        properties = "max.poll.records=${notification.kafka.channels.in-app.bulk.max-poll-records:${notification.kafka.lanes.bulk.max-poll-records:500}}"
+    )
+    public void consumeInAppBulk(List<Notification> notifications) {
+        dispatch("in-app bulk", notifications);
+    }
+    
+    @KafkaListener(
+        topics = "#{T(com.enterprise.notification.kafka.NotificationTopics).bulk('WEBHOOK')}",
+        groupId = "#{T(com.enterprise.notification.kafka.NotificationTopics).bulkGroupId('WEBHOOK')}",
+        clientIdPrefix = "notification-webhook-bulk",
+        concurrency = "${notification.kafka.channels.webhook.bulk.concurrency:${notification.kafka.lanes.bulk.concurrency:1}}",
+        properties = "max.poll.records=${notification.kafka.channels.webhook.bulk.max-poll-records:${notification.kafka.lanes.bulk.max-poll-records:500}}"
+    )
+    public void consumeWebhookBulk(List<Notification> notifications) {
+        dispatch("webhook bulk", notifications);
+    }
+    
+    // Drains messages published to the shared topics before the per-channel split; can be removed once they are empty
+    @KafkaListener(
+        topics = {NotificationTopics.LEGACY_REQUEST, NotificationTopics.LEGACY_RETRY},
+        groupId = "notification-service",
+        clientIdPrefix = "notification-legacy"
+    )
+    public void consumeLegacy(List<Notification> notifications) {
+        dispatch("legacy", notifications);
     }
     
-    @KafkaListener(topics = "notifications.retry", groupId = "notification-service")
-    public void consumeRetryRequest(Notification notification) {
-        log.info("Received retry request for notification: {}", notification.getId());
-        dispatcherService.dispatch(notification);
+    private void dispatch(String channel, List<Notification> notifications) {
+        log.debug("Received {} {} notifications", notifications.size(), channel);
+        dispatcherService.dispatchAll(notifications);
     }
 }
@@ -0,0 +1,76 @@
+package com.enterprise.notification.kafka;
+
+import com.enterprise.notification.domain.entity.Notification;
+import com.enterprise.notification.domain.enums.NotificationType;
+
+import java.util.Locale;
+
+// Each channel has its own request and retry topic so a backlog on one channel cannot delay the others.
+// On top of that, HIGH and BULK traffic go to per-channel high and bulk topics, each consumed by its own container,
+// so campaigns never queue ahead of OTPs and a slow provider's OTPs never hold back another channel's.
+// Listener annotations in NotificationConsumer resolve their topics and groups through SpEL calls into this class.
+public final class NotificationTopics {
+    
+    // Shared topics used before the per-channel split; only drained, never published to
+    public static final String LEGACY_REQUEST = "notifications.request";
+    public static final String LEGACY_RETRY = "notifications.retry";
+    
+    private NotificationTopics() {
+    }
+    
+    public static String request(Notification notification) {
+        return switch (notification.getPriority()) {
+            case HIGH -> high(notification.getType());
+            case NORMAL -> request(notification.getType());
+            case BULK -> bulk(notification.getType());
+        };
+    }
+    
+    public static String retry(Notification notification) {
+        return switch (notification.getPriority()) {
+            case HIGH -> high(notification.getType());
+            case NORMAL -> retry(notification.getType());
+            case BULK -> bulk(notification.getType());
+        };
+    }
+    
+    public static String request(NotificationType type) {
+        return LEGACY_REQUEST + "." + channel(type);
+    }
+    
+    public static String retry(NotificationType type) {
+        return LEGACY_RETRY + "." + channel(type);
+    }
+    
+    // First attempts and retries of HIGH priority notifications share this topic
+    public static String high(NotificationType type) {
+        return request(type) + ".high";
+    }
+    
+    public static String bulk(NotificationType type) {
+        return request(type) + ".bulk";
+    }
+    
+    // Topics consumed by a channel's own group
+    public static String[] topics(NotificationType type) {
+        return new String[]{request(type), retry(type)};
+    }
+    
+    // One consumer group per channel so each rebalances and lags independently
+    public static String groupId(NotificationType type) {
+        return "notification-service-" + channel(type);
+    }
+    
+    public static String highGroupId(NotificationType type) {
+        return groupId(type) + "-high";
+    }
+    
+    public static String bulkGroupId(NotificationType type) {
+        return groupId(type) + "-bulk";
+    }
+    
+    // Kafka warns about topic names mixing '.' and '_', so IN_APP becomes in-app
+    public static String channel(NotificationType type) {
+        return type.name().toLowerCase(Locale.ROOT).replace('_', '-');
+    }
+}
@@ -0,0 +1,104 @@
+package com.enterprise.notification.kafka;
+
+import com.enterprise.notification.domain.entity.Notification;
+import com.enterprise.notification.domain.entity.OutboxEvent;
+import com.enterprise.notification.domain.enums.NotificationStatus;
+import com.enterprise.notification.repository.NotificationRepository;
+import com.enterprise.notification.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Publishes outbox rows written alongside notifications. Rows are claimed with SKIP LOCKED so replicas relay
+// disjoint batches, and deleted in the same transaction only after every send in the batch is acknowledged.
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxRelay {
+    
+    private final OutboxEventRepository outboxEventRepository;
+    private final NotificationRepository notificationRepository;
+    private final KafkaTemplate<String, Notification> kafkaTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    
+    @Value("${notification.outbox.batch-size:1000}")
+    private int batchSize;
+    
+    private final AtomicLong depth = new AtomicLong();
+    private Counter relayed;
+    private Timer batchTimer;
+    
+    @PostConstruct
+    public void init() {
+        relayed = Counter.builder("notification.outbox.relayed")
+            .description("Outbox rows published to Kafka")
+            .register(meterRegistry);
+        batchTimer = Timer.builder("notification.outbox.relay.batch")
+            .description("Time to claim, publish and delete one outbox batch")
+            .register(meterRegistry);
+        Gauge.builder("notification.outbox.depth", depth, AtomicLong::get)
+            .description("Outbox rows waiting to be relayed")
+            .register(meterRegistry);
+    }
+    
+    @Scheduled(fixedDelayString = "${notification.outbox.poll-interval:200}")
+    public void relay() {
+        int published;
+        do {
+            published = batchTimer.record(() -> transactionTemplate.execute(status -> relayBatch()));
+        } while (published == batchSize);
+    }
+    
+    @Scheduled(fixedDelayString = "${notification.outbox.depth-interval:15000}")
+    public void refreshDepth() {
+        depth.set(outboxEventRepository.count());
+    }
+    
+    private int relayBatch() {
+        List<OutboxEvent> events = outboxEventRepository.lockBatch(batchSize);
+        if (events.isEmpty()) {
+            return 0;
+        }
+        
+        Map<UUID, Notification> notifications = notificationRepository
+            .findAllById(events.stream().map(OutboxEvent::getNotificationId).distinct().toList())
+            .stream()
+            .collect(Collectors.toMap(Notification::getId, Function.identity()));
+        
+        List<CompletableFuture<?>> sends = new ArrayList<>(events.size());
+        for (OutboxEvent event : events) {
+            Notification notification = notifications.get(event.getNotificationId());
+            // Cancelled before it was relayed; drop the event rather than dispatching it
+            if (notification == null || notification.getStatus() == NotificationStatus.CANCELLED) {
+                continue;
+            }
+            sends.add(kafkaTemplate.send(event.getTopic(), notification.getUserId(), notification));
+        }
+        
+        // A failed send throws here, rolling back so the whole batch is retried on the next poll
+        CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new)).join();
+        outboxEventRepository.deleteAllByIdInBatch(events.stream().map(OutboxEvent::getId).toList());
+        
+        relayed.increment(sends.size());
+        return events.size();
+    }
+}
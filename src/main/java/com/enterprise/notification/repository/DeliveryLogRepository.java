@@ -4,10 +4,12 @@ import com.enterprise.notification.domain.entity.DeliveryLog;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
 @Repository
-public interface DeliveryLogRepository extends JpaRepository<DeliveryLog, Long> {
-    List<DeliveryLog> findByNotificationIdOrderByAttemptDesc(UUID notificationId);
+public interface DeliveryLogRepository extends JpaRepository<DeliveryLog, Long>, DeliveryLogRepositoryCustom {
+    // The created_at lower bound (the notification's own createdAt) lets Postgres prune older partitions
+    List<DeliveryLog> findByNotificationIdAndCreatedAtGreaterThanEqualOrderByAttemptDesc(UUID notificationId, LocalDateTime since);
 }
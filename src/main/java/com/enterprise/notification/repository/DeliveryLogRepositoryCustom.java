@@ -0,0 +1,13 @@
+package com.enterprise.notification.repository;
+
+import com.enterprise.notification.domain.entity.DeliveryLog;
+import com.enterprise.notification.domain.entity.DeliveryPayload;
+
+import java.util.List;
+
+public interface DeliveryLogRepositoryCustom {
+    
+    void batchInsert(List<DeliveryLog> logs);
+    
+    void batchInsertPayloads(List<DeliveryPayload> payloads);
+}
@@ -0,0 +1,26 @@
+package com.enterprise.notification.repository;
+
+import com.enterprise.notification.domain.entity.DeliveryPayload;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface DeliveryPayloadRepository extends JpaRepository<DeliveryPayload, String> {
+    
+    // Payloads whose delivery_logs partitions have all been dropped. Writers refresh created_at when they reuse a
+    // payload older than half the cutoff, and the outer condition is re-evaluated against that update, so a payload
+    // picked here but reused concurrently is kept.
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM delivery_payloads WHERE created_at < :createdBefore AND hash IN (" +
+                   "SELECT p.hash FROM delivery_payloads p WHERE p.created_at < :createdBefore " +
+                   "AND NOT EXISTS (SELECT 1 FROM delivery_logs l WHERE l.request_payload_hash = p.hash) " +
+                   "LIMIT :limit)",
+           nativeQuery = true)
+    int deleteOrphans(LocalDateTime createdBefore, int limit);
+}
@@ -0,0 +1,40 @@
+package com.enterprise.notification.repository;
+
+import com.enterprise.notification.domain.entity.DeviceToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface DeviceTokenRepository extends JpaRepository<DeviceToken, Long> {
+    
+    List<DeviceToken> findByUserId(String userId);
+    
+    List<DeviceToken> findByUserIdAndInvalidatedAtIsNull(String userId);
+    
+    Optional<DeviceToken> findByToken(String token);
+    
+    boolean existsByTokenAndInvalidatedAtIsNotNull(String token);
+    
+    @Transactional
+    @Modifying
+    @Query("UPDATE DeviceToken d SET d.invalidatedAt = :invalidatedAt WHERE d.token IN :tokens AND d.invalidatedAt IS NULL")
+    int markInvalid(Collection<String> tokens, LocalDateTime invalidatedAt);
+    
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM DeviceToken d WHERE d.invalidatedAt < :invalidatedBefore")
+    int deleteByInvalidatedAtBefore(LocalDateTime invalidatedBefore);
+    
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM DeviceToken d WHERE d.userId = :userId AND d.token = :token")
+    int deleteByUserIdAndToken(String userId, String token);
+}
@@ -6,20 +6,80 @@ import com.enterprise.notification.domain.enums.NotificationType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
 @Repository
-public interface NotificationRepository extends JpaRepository<Notification, UUID> {
+public interface NotificationRepository extends JpaRepository<Notification, UUID>, NotificationRepositoryCustom {
     
     Page<Notification> findByUserId(String userId, Pageable pageable);
     
     List<Notification> findByStatusAndScheduledAtBefore(NotificationStatus status, LocalDateTime dateTime);
     
+    @Query(value = "SELECT * FROM notifications " +
+                   "WHERE status = 'PENDING' AND scheduled_at <= :dueBefore " +
+                   "ORDER BY scheduled_at, id LIMIT :limit " +
+                   "FOR UPDATE SKIP LOCKED",
+           nativeQuery = true)
+    List<Notification> lockDueScheduled(LocalDateTime dueBefore, int limit);
+    
+    // Keyset page over idx_notifications_retry_queue; the status literals keep the partial index usable
+    @Query(value = "SELECT * FROM notifications " +
+                   "WHERE status IN ('FAILED', 'THROTTLED') AND next_attempt_at <= :now AND retries < :maxRetries " +
+                   "AND (next_attempt_at, id) > (:afterAttemptAt, :afterId) " +
+                   "ORDER BY next_attempt_at, id LIMIT :limit " +
+                   "FOR UPDATE SKIP LOCKED",
+           nativeQuery = true)
+    List<Notification> lockDueRetries(
+        LocalDateTime now,
+        int maxRetries,
+        LocalDateTime afterAttemptAt,
+        UUID afterId,
+        int limit
+    );
+    
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Notification n SET n.status = :claimed, n.claimedBy = :owner, " +
+           "n.leaseExpiresAt = :leaseExpiresAt, n.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE n.id IN :ids")
+    int claim(Collection<UUID> ids, NotificationStatus claimed, String owner, LocalDateTime leaseExpiresAt);
+    
+    @Transactional
+    @Modifying
+    @Query("UPDATE Notification n SET n.status = :next, n.claimedBy = NULL, " +
+           "n.leaseExpiresAt = NULL, n.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE n.id IN :ids AND n.status = :claimed AND n.claimedBy = :owner")
+    int completeClaim(Collection<UUID> ids, NotificationStatus claimed, String owner, NotificationStatus next);
+    
+    // Hands claims back to the queue they were taken from: retried rows to FAILED, throttled first attempts to
+    // THROTTLED, scheduled rows to PENDING
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE notifications SET " +
+                   "status = CASE WHEN retries > 0 THEN 'FAILED' " +
+                   "WHEN next_attempt_at IS NOT NULL THEN 'THROTTLED' ELSE 'PENDING' END, " +
+                   "claimed_by = NULL, lease_expires_at = NULL, updated_at = :now " +
+                   "WHERE status = 'CLAIMED' AND lease_expires_at < :now",
+           nativeQuery = true)
+    int releaseExpiredClaims(LocalDateTime now);
+    
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE notifications SET " +
+                   "status = CASE WHEN retries > 0 THEN 'FAILED' " +
+                   "WHEN next_attempt_at IS NOT NULL THEN 'THROTTLED' ELSE 'PENDING' END, " +
+                   "claimed_by = NULL, lease_expires_at = NULL, updated_at = :now " +
+                   "WHERE status = 'CLAIMED' AND claimed_by = :owner",
+           nativeQuery = true)
+    int releaseClaims(String owner, LocalDateTime now);
+    
     @Query("SELECT n FROM Notification n WHERE " +
            "(:userId IS NULL OR n.userId = :userId) AND " +
            "(:status IS NULL OR n.status = :status) AND " +
@@ -0,0 +1,15 @@
+package com.enterprise.notification.repository;
+
+import com.enterprise.notification.domain.entity.Notification;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface NotificationRepositoryCustom {
+    
+    // Notifications must carry client-assigned ids and timestamps
+    void batchInsert(List<Notification> notifications);
+    
+    // Writes each notification's delivery outcome; the returned counts are 0 for rows no longer in flight
+    int[] batchUpdateStatus(List<Notification> notifications, LocalDateTime updatedAt);
+}
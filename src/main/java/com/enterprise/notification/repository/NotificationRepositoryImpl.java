@@ -0,0 +1,75 @@
+package com.enterprise.notification.repository;
+
+import com.enterprise.notification.domain.entity.Notification;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class NotificationRepositoryImpl implements NotificationRepositoryCustom {
+    
+    private static final String INSERT_SQL =
+        "INSERT INTO notifications (id, user_id, type, status, priority, template_id, payload, scheduled_at, retries, " +
+        "created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?::jsonb, ?, ?, ?, ?)";
+    
+    // Only delivery-related columns are touched, and only while the row is still in flight, so a stale
+    // entity from Kafka can never rewrite the payload or overwrite a CANCELLED or already settled status.
+    // CLAIMED is included because claims are completed after Kafka acknowledges the publish.
+    private static final String UPDATE_STATUS_SQL =
+        "UPDATE notifications SET status = ?, sent_at = ?, retries = ?, next_attempt_at = ?, updated_at = ? " +
+        "WHERE id = ? AND status IN ('QUEUED', 'RETRYING', 'CLAIMED', 'PROCESSING')";
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    
+    @Value("${notification.bulk.insert-batch-size:1000}")
+    private int insertBatchSize;
+    
+    @Override
+    public void batchInsert(List<Notification> notifications) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, notifications, insertBatchSize, (ps, notification) -> {
+            ps.setObject(1, notification.getId());
+            ps.setString(2, notification.getUserId());
+            ps.setString(3, notification.getType().name());
+            ps.setString(4, notification.getStatus().name());
+            ps.setString(5, notification.getPriority().name());
+            ps.setObject(6, notification.getTemplateId(), Types.BIGINT);
+            ps.setString(7, toJson(notification));
+            ps.setObject(8, notification.getScheduledAt());
+            ps.setInt(9, notification.getRetries());
+            ps.setObject(10, notification.getCreatedAt());
+            ps.setObject(11, notification.getUpdatedAt());
+        });
+    }
+    
+    // All or nothing, so a caller can retry the rows of a failed batch one by one without applying any twice
+    @Override
+    @Transactional
+    public int[] batchUpdateStatus(List<Notification> notifications, LocalDateTime updatedAt) {
+        int[][] counts = jdbcTemplate.batchUpdate(UPDATE_STATUS_SQL, notifications, notifications.size(), (ps, notification) -> {
+            ps.setString(1, notification.getStatus().name());
+            ps.setObject(2, notification.getSentAt());
+            ps.setInt(3, notification.getRetries());
+            ps.setObject(4, notification.getNextAttemptAt());
+            ps.setObject(5, updatedAt);
+            ps.setObject(6, notification.getId());
+        });
+        return Arrays.stream(counts).flatMapToInt(Arrays::stream).toArray();
+    }
+    
+    private String toJson(Notification notification) {
+        try {
+            return notification.getPayload() == null ? null : objectMapper.writeValueAsString(notification.getPayload());
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid payload for notification " + notification.getId(), e);
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.enterprise.notification.repository;
+
+import com.enterprise.notification.domain.entity.OutboxEvent;
+
+import java.util.List;
+
+public interface OutboxEventRepositoryCustom {
+    
+    void batchInsert(List<OutboxEvent> events);
+}
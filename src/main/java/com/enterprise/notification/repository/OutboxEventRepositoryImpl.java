@@ -0,0 +1,31 @@
+package com.enterprise.notification.repository;
+
+import com.enterprise.notification.domain.entity.OutboxEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class OutboxEventRepositoryImpl implements OutboxEventRepositoryCustom {
+    
+    private static final String INSERT_SQL =
+        "INSERT INTO notification_outbox (notification_id, topic, created_at) VALUES (?, ?, ?)";
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    @Value("${notification.bulk.insert-batch-size:1000}")
+    private int insertBatchSize;
+    
+    @Override
+    public void batchInsert(List<OutboxEvent> events) {
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.batchUpdate(INSERT_SQL, events, insertBatchSize, (ps, event) -> {
+            ps.setObject(1, event.getNotificationId());
+            ps.setString(2, event.getTopic());
+            ps.setObject(3, event.getCreatedAt() != null ? event.getCreatedAt() : now);
+        });
+    }
+}
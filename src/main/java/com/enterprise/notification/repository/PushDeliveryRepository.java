@@ -0,0 +1,30 @@
+package com.enterprise.notification.repository;
+
+import com.enterprise.notification.domain.entity.PushDelivery;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface PushDeliveryRepository extends JpaRepository<PushDelivery, PushDelivery.Key> {
+    
+    @Query(value = "SELECT device_token FROM push_deliveries WHERE notification_id = :notificationId AND status = 'SENT'",
+           nativeQuery = true)
+    List<String> findDeliveredTokens(UUID notificationId);
+    
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO push_deliveries (notification_id, device_token, status, error, attempts, last_attempt_at) " +
+                   "VALUES (:notificationId, :deviceToken, :status, :error, 1, :attemptAt) " +
+                   "ON CONFLICT (notification_id, device_token) DO UPDATE SET " +
+                   "status = EXCLUDED.status, error = EXCLUDED.error, " +
+                   "attempts = push_deliveries.attempts + 1, last_attempt_at = EXCLUDED.last_attempt_at",
+           nativeQuery = true)
+    int upsert(UUID notificationId, String deviceToken, String status, String error, LocalDateTime attemptAt);
+}
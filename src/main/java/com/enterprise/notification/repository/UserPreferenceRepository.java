@@ -4,9 +4,13 @@ import com.enterprise.notification.domain.entity.UserPreference;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserPreferenceRepository extends JpaRepository<UserPreference, Long> {
     Optional<UserPreference> findByUserId(String userId);
+    
+    List<UserPreference> findByUserIdIn(Collection<String> userIds);
 }
@@ -0,0 +1,30 @@
+package com.enterprise.notification.repository;
+
+import com.enterprise.notification.domain.entity.WebhookDelivery;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface WebhookDeliveryRepository extends JpaRepository<WebhookDelivery, WebhookDelivery.Key> {
+    
+    @Query(value = "SELECT endpoint_id FROM webhook_deliveries WHERE notification_id = :notificationId AND status = 'SENT'",
+           nativeQuery = true)
+    List<Long> findDeliveredEndpointIds(UUID notificationId);
+    
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO webhook_deliveries (notification_id, endpoint_id, status, status_code, attempts, last_attempt_at) " +
+                   "VALUES (:notificationId, :endpointId, :status, :statusCode, 1, :attemptAt) " +
+                   "ON CONFLICT (notification_id, endpoint_id) DO UPDATE SET " +
+                   "status = EXCLUDED.status, status_code = EXCLUDED.status_code, " +
+                   "attempts = webhook_deliveries.attempts + 1, last_attempt_at = EXCLUDED.last_attempt_at",
+           nativeQuery = true)
+    int upsert(UUID notificationId, Long endpointId, String status, int statusCode, LocalDateTime attemptAt);
+}
@@ -0,0 +1,191 @@
+package com.enterprise.notification.scheduler;
+
+import com.enterprise.notification.repository.DeliveryPayloadRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Keeps daily delivery_logs partitions created ahead of time and drops whole partitions past retention.
+// Every partition created and the drop pass run in their own transaction, so one failure cannot hold up the rest;
+// failures are logged and counted in notification.delivery-log.partition.failures for alerting.
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DeliveryLogPartitionManager {
+    
+    // Arbitrary key shared by all replicas so only one of them runs partition DDL at a time
+    private static final long ADVISORY_LOCK_KEY = 0x64656c6976657279L;
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.BASIC_ISO_DATE;
+    private static final int ORPHAN_BATCH_SIZE = 1000;
+    private static final Pattern UPPER_BOUND = Pattern.compile("TO \\('([^']+)'\\)");
+    private static final String COLUMNS =
+        "id, notification_id, request_payload, request_payload_hash, response_payload, status_code, attempt, created_at";
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final DeliveryPayloadRepository deliveryPayloadRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    
+    @Value("${notification.delivery-log.partition.days-ahead:7}")
+    private int daysAhead;
+    
+    @Value("${notification.delivery-log.partition.retention-days:30}")
+    private int retentionDays;
+    
+    @Scheduled(initialDelay = 0, fixedDelayString = "${notification.delivery-log.partition.check-interval:3600000}")
+    public void maintainPartitions() {
+        createAhead();
+        runLocked("drop", this::dropExpired);
+        deleteOrphanPayloads();
+    }
+    
+    private void runLocked(String operation, Runnable step) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                Boolean locked = jdbcTemplate.queryForObject(
+                    "SELECT pg_try_advisory_xact_lock(?)", Boolean.class, ADVISORY_LOCK_KEY);
+                if (!Boolean.TRUE.equals(locked)) {
+                    log.debug("Another instance is maintaining delivery_logs partitions");
+                    return;
+                }
+                step.run();
+            });
+        } catch (Exception e) {
+            Counter.builder("notification.delivery-log.partition.failures")
+                .tag("operation", operation)
+                .register(meterRegistry)
+                .increment();
+            log.error("delivery_logs partition maintenance failed ({})", operation, e);
+        }
+    }
+    
+    // Runs after partitions are dropped, in bounded batches. Each batch takes the advisory lock in its own short
+    // transaction, so only one replica scans for orphans at a time. The one-day cutoff pairs with the 12-hour refresh
+    // in DeliveryLogRepositoryImpl's payload upsert.
+    private void deleteOrphanPayloads() {
+        LocalDateTime createdBefore = LocalDateTime.now().minusDays(1);
+        int deleted;
+        int total = 0;
+        do {
+            try {
+                deleted = transactionTemplate.execute(status -> {
+                    Boolean locked = jdbcTemplate.queryForObject(
+                        "SELECT pg_try_advisory_xact_lock(?)", Boolean.class, ADVISORY_LOCK_KEY);
+                    return Boolean.TRUE.equals(locked)
+                        ? deliveryPayloadRepository.deleteOrphans(createdBefore, ORPHAN_BATCH_SIZE)
+                        : 0;
+                });
+            } catch (Exception e) {
+                log.error("Failed to delete orphaned delivery payloads", e);
+                return;
+            }
+            total += deleted;
+        } while (deleted == ORPHAN_BATCH_SIZE);
+        if (total > 0) {
+            log.info("Deleted {} delivery payloads no longer referenced by any delivery log", total);
+        }
+    }
+    
+    // Days still inside the migrated legacy partition's range cannot get a partition of their own
+    private void createAhead() {
+        LocalDate today = LocalDate.now();
+        LocalDate first;
+        try {
+            LocalDate legacyCutover = legacyCutover();
+            first = legacyCutover.isAfter(today) ? legacyCutover : today;
+        } catch (Exception e) {
+            log.error("Failed to read the delivery_logs legacy partition bound", e);
+            return;
+        }
+        for (LocalDate from = first; !from.isAfter(today.plusDays(daysAhead)); from = from.plusDays(1)) {
+            LocalDate day = from;
+            runLocked("create", () -> createPartition(day));
+        }
+    }
+    
+    // CREATE ... PARTITION OF fails while the default partition holds rows for the new range, e.g. after the manager
+    // was down for a day. Those rows are moved across with the default detached, all in this one transaction.
+    private void createPartition(LocalDate from) {
+        String name = "delivery_logs_p" + from.format(PARTITION_SUFFIX);
+        if (Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, name))) {
+            return;
+        }
+        String bounds = String.format("FOR VALUES FROM ('%s') TO ('%s')", from, from.plusDays(1));
+        String defaultPartition = defaultPartition();
+        boolean stranded = defaultPartition != null && Boolean.TRUE.equals(jdbcTemplate.queryForObject(String.format(
+            "SELECT EXISTS (SELECT 1 FROM %s WHERE created_at >= '%s' AND created_at < '%s')",
+            defaultPartition, from, from.plusDays(1)), Boolean.class));
+        if (!stranded) {
+            jdbcTemplate.execute("CREATE TABLE " + name + " PARTITION OF delivery_logs " + bounds);
+            return;
+        }
+        
+        jdbcTemplate.execute("ALTER TABLE delivery_logs DETACH PARTITION " + defaultPartition);
+        jdbcTemplate.execute("CREATE TABLE " + name + " PARTITION OF delivery_logs " + bounds);
+        int moved = jdbcTemplate.update(String.format(
+            "WITH moved AS (DELETE FROM %s WHERE created_at >= '%s' AND created_at < '%s' RETURNING %s) " +
+            "INSERT INTO %s (%s) SELECT %s FROM moved",
+            defaultPartition, from, from.plusDays(1), COLUMNS, name, COLUMNS, COLUMNS));
+        jdbcTemplate.execute("ALTER TABLE delivery_logs ATTACH PARTITION " + defaultPartition + " DEFAULT");
+        log.warn("Created delivery_logs partition {} and moved {} rows into it from {}", name, moved, defaultPartition);
+    }
+    
+    private String defaultPartition() {
+        List<String> names = jdbcTemplate.queryForList(
+            "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid " +
+            "WHERE i.inhparent = 'delivery_logs'::regclass AND pg_get_expr(c.relpartbound, c.oid) = 'DEFAULT'",
+            String.class);
+        return names.isEmpty() ? null : names.get(0);
+    }
+    
+    // Drops partitions whose whole range is older than the retention window; the default partition has no bound and is kept
+    private void dropExpired() {
+        LocalDateTime cutoff = LocalDate.now().minusDays(retentionDays).atStartOfDay();
+        List<PartitionBound> partitions = jdbcTemplate.query(
+            "SELECT c.relname, pg_get_expr(c.relpartbound, c.oid) FROM pg_inherits i " +
+            "JOIN pg_class c ON c.oid = i.inhrelid WHERE i.inhparent = 'delivery_logs'::regclass",
+            (rs, rowNum) -> new PartitionBound(rs.getString(1), upperBound(rs.getString(2))));
+        
+        for (PartitionBound partition : partitions) {
+            if (partition.upperBound() != null && !partition.upperBound().isAfter(cutoff)) {
+                jdbcTemplate.execute("DROP TABLE " + partition.name());
+                log.info("Dropped delivery_logs partition {} (data before {})", partition.name(), partition.upperBound());
+            }
+        }
+    }
+    
+    private LocalDate legacyCutover() {
+        List<String> bounds = jdbcTemplate.queryForList(
+            "SELECT pg_get_expr(c.relpartbound, c.oid) FROM pg_class c WHERE c.relname = 'delivery_logs_legacy' AND c.relispartition",
+            String.class);
+        LocalDateTime upper = bounds.isEmpty() ? null : upperBound(bounds.get(0));
+        return upper == null ? LocalDate.MIN : upper.toLocalDate();
+    }
+    
+    private static LocalDateTime upperBound(String expression) {
+        if (expression == null) {
+            return null;
+        }
+        Matcher matcher = UPPER_BOUND.matcher(expression);
+        if (!matcher.find()) {
+            return null;
+        }
+        return LocalDateTime.parse(matcher.group(1).replace(' ', 'T'));
+    }
+    
+    private record PartitionBound(String name, LocalDateTime upperBound) {
+    }
+}
@@ -2,10 +2,11 @@ package com.enterprise.notification.scheduler;
 
 import com.enterprise.notification.domain.entity.Notification;
 import com.enterprise.notification.domain.enums.NotificationStatus;
-import com.enterprise.notification.repository.NotificationRepository;
+import com.enterprise.notification.kafka.NotificationTopics;
+import com.enterprise.notification.service.NotificationClaimService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
@@ -17,18 +18,30 @@ import java.util.List;
 @Slf4j
 public class NotificationScheduler {
     
-    private final NotificationRepository notificationRepository;
-    private final KafkaTemplate<String, Notification> kafkaTemplate;
+    private final NotificationClaimService claimService;
+    
+    @Value("${notification.scheduler.batch-size:500}")
+    private int batchSize;
     
     @Scheduled(fixedDelay = 60000) // Run every minute
     public void processScheduledNotifications() {
-        List<Notification> scheduledNotifications = notificationRepository
-            .findByStatusAndScheduledAtBefore(NotificationStatus.PENDING, LocalDateTime.now());
+        LocalDateTime now = LocalDateTime.now();
+        int total = 0;
         
-        log.info("Processing {} scheduled notifications", scheduledNotifications.size());
+        List<Notification> claimed;
+        do {
+            claimed = claimService.claimScheduled(now, batchSize);
+            total += claimService.publishClaimed(claimed, NotificationTopics::request, NotificationStatus.QUEUED);
+        } while (claimed.size() == batchSize);
         
-        scheduledNotifications.forEach(notification -> {
-            kafkaTemplate.send("notifications.request", notification);
-        });
+        log.info("Processing {} scheduled notifications", total);
+    }
+    
+    @Scheduled(fixedDelayString = "${notification.scheduler.lease-check-interval:60000}")
+    public void releaseExpiredClaims() {
+        int released = claimService.releaseExpiredClaims();
+        if (released > 0) {
+            log.warn("Released {} notifications whose claim lease expired", released);
+        }
     }
 }
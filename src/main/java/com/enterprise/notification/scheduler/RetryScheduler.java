@@ -2,55 +2,54 @@ package com.enterprise.notification.scheduler;
 
 import com.enterprise.notification.domain.entity.Notification;
 import com.enterprise.notification.domain.enums.NotificationStatus;
-import com.enterprise.notification.repository.NotificationRepository;
+import com.enterprise.notification.kafka.NotificationTopics;
+import com.enterprise.notification.service.NotificationClaimService;
+import com.enterprise.notification.service.RetryPolicy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.UUID;
 
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class RetryScheduler {
     
-    private final NotificationRepository notificationRepository;
-    private final KafkaTemplate<String, Notification> kafkaTemplate;
+    private static final LocalDateTime CURSOR_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final UUID CURSOR_START_ID = new UUID(0L, 0L);
     
-    @Value("${notification.retry.max-attempts}")
-    private int maxRetries;
+    private final NotificationClaimService claimService;
+    private final RetryPolicy retryPolicy;
     
-    @Scheduled(fixedDelay = 120000) // Run every 2 minutes
-    public void retryFailedNotifications() {
-        List<Notification> failedNotifications = notificationRepository.findAll().stream()
-            .filter(n -> n.getStatus() == NotificationStatus.FAILED)
-            .filter(n -> n.getRetries() < maxRetries)
-            .filter(n -> shouldRetry(n))
-            .toList();
-        
-        log.info("Retrying {} failed notifications", failedNotifications.size());
-        
-        failedNotifications.forEach(notification -> {
-            notification.setStatus(NotificationStatus.RETRYING);
-            notificationRepository.save(notification);
-            kafkaTemplate.send("notifications.retry", notification);
-        });
-    }
+    @Value("${notification.retry.batch-size:500}")
+    private int batchSize;
     
-    private boolean shouldRetry(Notification notification) {
-        long minutesSinceLastUpdate = java.time.Duration.between(
-            notification.getUpdatedAt(), 
-            LocalDateTime.now()
-        ).toMinutes();
+    @Scheduled(fixedDelayString = "${notification.retry.poll-interval:30000}")
+    public void retryFailedNotifications() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime afterAttemptAt = CURSOR_START;
+        UUID afterId = CURSOR_START_ID;
+        int total = 0;
         
-        // Exponential backoff: 1, 2, 5, 10, 20 minutes
-        long[] backoffMinutes = {1, 2, 5, 10, 20};
-        int retryIndex = Math.min(notification.getRetries(), backoffMinutes.length - 1);
+        List<Notification> batch;
+        do {
+            batch = claimService.claimRetries(
+                now, retryPolicy.getMaxRetries(), afterAttemptAt, afterId, batchSize);
+            if (batch.isEmpty()) {
+                break;
+            }
+            
+            Notification last = batch.get(batch.size() - 1);
+            afterAttemptAt = last.getNextAttemptAt();
+            afterId = last.getId();
+            total += claimService.publishClaimed(batch, NotificationTopics::retry, NotificationStatus.RETRYING);
+        } while (batch.size() == batchSize);
         
-        return minutesSinceLastUpdate >= backoffMinutes[retryIndex];
+        log.info("Retrying {} failed notifications", total);
     }
 }
@@ -0,0 +1,149 @@
+package com.enterprise.notification.scheduler;
+
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Hierarchical timing wheel holding notification ids and deadlines in primitive slot arrays
+ * (three longs per entry). Not thread-safe; callers synchronize around add and advance.
+ */
+public class TimingWheel {
+    
+    private static final int INITIAL_SLOT_CAPACITY = 8;
+    
+    private final long tickMillis;
+    private final int bits;
+    private final int mask;
+    private final Slot[][] levels;
+    
+    private long currentTick;
+    private int size;
+    
+    public TimingWheel(long tickMillis, int wheelSize, int levelCount, long startMillis) {
+        if (Integer.bitCount(wheelSize) != 1) {
+            throw new IllegalArgumentException("Wheel size must be a power of two");
+        }
+        if ((long) Integer.numberOfTrailingZeros(wheelSize) * levelCount > 62) {
+            throw new IllegalArgumentException("Too many wheel levels for wheel size " + wheelSize);
+        }
+        this.tickMillis = tickMillis;
+        this.bits = Integer.numberOfTrailingZeros(wheelSize);
+        this.mask = wheelSize - 1;
+        this.levels = new Slot[levelCount][wheelSize];
+        for (Slot[] level : levels) {
+            for (int i = 0; i < wheelSize; i++) {
+                level[i] = new Slot();
+            }
+        }
+        this.currentTick = startMillis / tickMillis;
+    }
+    
+    public int size() {
+        return size;
+    }
+    
+    // Deadlines at or beyond this instant do not fit in the wheel and must stay in the database
+    public long horizonMillis() {
+        long ticks = 1L << (bits * levels.length);
+        long spanStart = (currentTick >> (bits * levels.length)) << (bits * levels.length);
+        return (spanStart + ticks) * tickMillis;
+    }
+    
+    public boolean add(UUID id, long deadlineMillis) {
+        long ticks = Math.max(tickOf(deadlineMillis), currentTick + 1);
+        if (!place(id.getMostSignificantBits(), id.getLeastSignificantBits(), deadlineMillis, ticks)) {
+            return false;
+        }
+        size++;
+        return true;
+    }
+    
+    // Fires every entry whose tick has passed, cascading higher levels down as their spans come due
+    public int advance(long nowMillis, ExpiredEntryConsumer consumer) {
+        long targetTick = nowMillis / tickMillis;
+        int fired = 0;
+        while (currentTick < targetTick) {
+            currentTick++;
+            for (int level = levels.length - 1; level > 0; level--) {
+                if ((currentTick & ((1L << (bits * level)) - 1)) == 0) {
+                    cascade(levels[level][(int) ((currentTick >> (bits * level)) & mask)]);
+                }
+            }
+            
+            Slot slot = levels[0][(int) (currentTick & mask)];
+            for (int i = 0; i < slot.size; i++) {
+                consumer.accept(slot.msb[i], slot.lsb[i], slot.deadlines[i]);
+            }
+            fired += slot.size;
+            size -= slot.size;
+            slot.clear();
+        }
+        return fired;
+    }
+    
+    private void cascade(Slot slot) {
+        int count = slot.size;
+        if (count == 0) {
+            return;
+        }
+        long[] msb = Arrays.copyOf(slot.msb, count);
+        long[] lsb = Arrays.copyOf(slot.lsb, count);
+        long[] deadlines = Arrays.copyOf(slot.deadlines, count);
+        slot.clear();
+        for (int i = 0; i < count; i++) {
+            place(msb[i], lsb[i], deadlines[i], Math.max(tickOf(deadlines[i]), currentTick));
+        }
+    }
+    
+    // Rounds up so an entry never fires before its deadline
+    private long tickOf(long deadlineMillis) {
+        return Math.floorDiv(deadlineMillis + tickMillis - 1, tickMillis);
+    }
+    
+    // Lowest level whose rotation still contains the target tick; anything further out is rejected
+    private boolean place(long msb, long lsb, long deadlineMillis, long ticks) {
+        for (int level = 0; level < levels.length; level++) {
+            int shift = bits * (level + 1);
+            if ((ticks >> shift) == (currentTick >> shift)) {
+                levels[level][(int) ((ticks >> (bits * level)) & mask)].add(msb, lsb, deadlineMillis);
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    @FunctionalInterface
+    public interface ExpiredEntryConsumer {
+        void accept(long idMostSigBits, long idLeastSigBits, long deadlineMillis);
+    }
+    
+    private static final class Slot {
+        private long[] msb = new long[0];
+        private long[] lsb = new long[0];
+        private long[] deadlines = new long[0];
+        private int size;
+        
+        private void add(long mostSigBits, long leastSigBits, long deadlineMillis) {
+            if (size == msb.length) {
+                int capacity = Math.max(INITIAL_SLOT_CAPACITY, msb.length * 2);
+                msb = Arrays.copyOf(msb, capacity);
+                lsb = Arrays.copyOf(lsb, capacity);
+                deadlines = Arrays.copyOf(deadlines, capacity);
+            }
+            msb[size] = mostSigBits;
+            lsb[size] = leastSigBits;
+            deadlines[size] = deadlineMillis;
+            size++;
+        }
+        
+        // Large slots give their arrays back once drained so a burst does not pin memory
+        private void clear() {
+            if (msb.length > 1024) {
+                msb = new long[0];
+                lsb = new long[0];
+                deadlines = new long[0];
+            }
+            size = 0;
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.enterprise.notification.scheduler;
+
+import com.enterprise.notification.domain.entity.Notification;
+import com.enterprise.notification.domain.enums.NotificationStatus;
+import com.enterprise.notification.kafka.NotificationTopics;
+import com.enterprise.notification.repository.NotificationRepository;
+import com.enterprise.notification.service.NotificationClaimService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Preloads notifications due within the window into a timing wheel and publishes them at their exact time;
+// NotificationScheduler remains the database fallback for anything the wheel does not hold.
+@Component
+@ConditionalOnProperty(name = "notification.scheduler.wheel.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class TimingWheelScheduler {
+    
+    private final NotificationClaimService claimService;
+    private final NotificationRepository notificationRepository;
+    private final MeterRegistry meterRegistry;
+    
+    @Value("${notification.scheduler.wheel.tick-millis:100}")
+    private long tickMillis;
+    
+    @Value("${notification.scheduler.wheel.wheel-size:512}")
+    private int wheelSize;
+    
+    @Value("${notification.scheduler.wheel.levels:3}")
+    private int levels;
+    
+    @Value("${notification.scheduler.wheel.preload-window:300000}")
+    private long preloadWindowMillis;
+    
+    @Value("${notification.scheduler.wheel.max-entries:1000000}")
+    private int maxEntries;
+    
+    @Value("${notification.scheduler.batch-size:500}")
+    private int batchSize;
+    
+    @Value("${notification.scheduler.claim-lease:300000}")
+    private long claimLeaseMillis;
+    
+    private TimingWheel wheel;
+    private ScheduledExecutorService ticker;
+    private ExecutorService publisher;
+    private String wheelOwner;
+    private DistributionSummary lateness;
+    
+    @PostConstruct
+    public void start() {
+        wheelOwner = claimService.getOwner("wheel");
+        wheel = new TimingWheel(tickMillis, wheelSize, levels, System.currentTimeMillis());
+        lateness = DistributionSummary.builder("notification.scheduler.wheel.lateness")
+            .baseUnit("milliseconds")
+            .publishPercentiles(0.5, 0.99)
+            .register(meterRegistry);
+        Gauge.builder("notification.scheduler.wheel.size", this, TimingWheelScheduler::size)
+            .register(meterRegistry);
+        
+        ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "timing-wheel");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Lookups and Kafka publishes run off the ticker so a burst of due entries cannot delay later ticks
+        publisher = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("timing-wheel-fire-", 0).factory());
+        ticker.scheduleAtFixedRate(this::tick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+    
+    // Only the wheel's own claims are released; the database schedulers' claims share the process owner
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        ticker.shutdown();
+        ticker.awaitTermination(5, TimeUnit.SECONDS);
+        publisher.shutdown();
+        publisher.awaitTermination(10, TimeUnit.SECONDS);
+        int released = claimService.releaseClaims(wheelOwner);
+        log.info("Released {} preloaded notifications on shutdown", released);
+    }
+    
+    @Scheduled(fixedDelayString = "${notification.scheduler.wheel.preload-interval:5000}")
+    public void preload() {
+        LocalDateTime horizon = LocalDateTime.now().plus(Duration.ofMillis(preloadWindowMillis));
+        int loaded = 0;
+        
+        List<Notification> claimed;
+        do {
+            int capacity = maxEntries - size();
+            if (capacity <= 0) {
+                log.warn("Timing wheel full at {} entries, leaving further notifications to the database poll", maxEntries);
+                break;
+            }
+            claimed = claimService.claimScheduled(horizon, Math.min(batchSize, capacity),
+                preloadWindowMillis + claimLeaseMillis, wheelOwner);
+            
+            synchronized (this) {
+                for (Notification notification : claimed) {
+                    long deadline = notification.getScheduledAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+                    if (!wheel.add(notification.getId(), deadline)) {
+                        // Beyond the wheel's horizon; the claim lease expires and the row returns to PENDING
+                        log.warn("Notification {} does not fit in the timing wheel", notification.getId());
+                    }
+                }
+            }
+            loaded += claimed.size();
+        } while (claimed.size() == batchSize);
+        
+        if (loaded > 0) {
+            log.debug("Preloaded {} scheduled notifications into the timing wheel", loaded);
+        }
+    }
+    
+    private void tick() {
+        try {
+            long now = System.currentTimeMillis();
+            List<UUID> due = new ArrayList<>();
+            synchronized (this) {
+                wheel.advance(now, (msb, lsb, deadline) -> {
+                    due.add(new UUID(msb, lsb));
+                    lateness.record(now - deadline);
+                });
+            }
+            if (!due.isEmpty()) {
+                publisher.execute(() -> fire(due));
+            }
+        } catch (Exception e) {
+            log.error("Timing wheel tick failed", e);
+        }
+    }
+    
+    private void fire(List<UUID> due) {
+        try {
+            publish(due);
+        } catch (Exception e) {
+            // The claims stay leased to the wheel owner and return to PENDING when the lease expires
+            log.error("Failed to publish {} due notifications from the timing wheel", due.size(), e);
+        }
+    }
+    
+    private void publish(List<UUID> due) {
+        for (int from = 0; from < due.size(); from += batchSize) {
+            List<UUID> ids = due.subList(from, Math.min(from + batchSize, due.size()));
+            // Skip rows cancelled or reclaimed since they were preloaded
+            List<Notification> claimed = notificationRepository.findAllById(ids).stream()
+                .filter(notification -> notification.getStatus() == NotificationStatus.CLAIMED)
+                .filter(notification -> Objects.equals(notification.getClaimedBy(), wheelOwner))
+                .toList();
+            claimService.publishClaimed(claimed, NotificationTopics::request, NotificationStatus.QUEUED, wheelOwner);
+        }
+    }
+    
+    private synchronized int size() {
+        return wheel.size();
+    }
+}
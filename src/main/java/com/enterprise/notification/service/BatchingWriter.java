@@ -0,0 +1,126 @@
+package com.enterprise.notification.service;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+// Bounded queue drained by one daemon thread that hands batches to a flush callback. A batch is flushed when it is
+// full or once it has lingered for the configured time after its first item. The callback owns error handling;
+// the list it gets is cleared after it returns. Once stopped, submit() flushes on the caller's thread instead.
+@Slf4j
+public final class BatchingWriter<T> {
+    
+    private final String name;
+    private final int batchSize;
+    private final long lingerMillis;
+    private final Consumer<List<T>> flush;
+    private final BlockingQueue<T> queue;
+    private Thread writer;
+    private volatile boolean running = true;
+    
+    public BatchingWriter(String name, int capacity, int batchSize, long lingerMillis, Consumer<List<T>> flush) {
+        this.name = name;
+        this.batchSize = batchSize;
+        this.lingerMillis = lingerMillis;
+        this.flush = flush;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+    }
+    
+    public void start() {
+        writer = new Thread(this::run, name);
+        writer.setDaemon(true);
+        writer.start();
+    }
+    
+    // Lets the writer finish its current batch and drain, then flushes anything enqueued while it was doing so
+    public void stop() throws InterruptedException {
+        running = false;
+        writer.interrupt();
+        writer.join(TimeUnit.SECONDS.toMillis(30));
+        List<T> rest = new ArrayList<>();
+        queue.drainTo(rest);
+        flushAll(rest);
+    }
+    
+    // Blocks while the queue is full, which throttles callers when the writer falls behind. Waits in slices and
+    // rechecks the writer, so a caller never stays parked on a queue nobody drains any more.
+    public void submit(T item) throws InterruptedException {
+        if (!running) {
+            flushInline(item);
+            return;
+        }
+        while (!queue.offer(item, lingerMillis, TimeUnit.MILLISECONDS)) {
+            if (!running) {
+                flushInline(item);
+                return;
+            }
+        }
+        // stop() may have drained the queue just before the item went in
+        if (!running && queue.remove(item)) {
+            flushInline(item);
+        }
+    }
+    
+    public int queued() {
+        return queue.size();
+    }
+    
+    public boolean isWriterThread() {
+        return Thread.currentThread() == writer;
+    }
+    
+    private void flushInline(T item) {
+        flushBatch(new ArrayList<>(List.of(item)));
+    }
+    
+    private void run() {
+        List<T> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                batch.add(queue.take());
+                
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(lingerMillis);
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0) {
+                        break;
+                    }
+                    T next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next != null) {
+                        batch.add(next);
+                    }
+                }
+                flushBatch(batch);
+            } catch (InterruptedException e) {
+                // Shutdown; fall through to the final drain
+                break;
+            }
+        }
+        
+        queue.drainTo(batch);
+        flushAll(batch);
+    }
+    
+    private void flushAll(List<T> items) {
+        while (!items.isEmpty()) {
+            flushBatch(items.subList(0, Math.min(batchSize, items.size())));
+        }
+    }
+    
+    // A callback that throws must not kill the writer thread
+    private void flushBatch(List<T> batch) {
+        try {
+            flush.accept(batch);
+        } catch (RuntimeException e) {
+            log.error("{} failed to flush {} items", name, batch.size(), e);
+        } finally {
+            batch.clear();
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.enterprise.notification.service;
+
+import com.enterprise.notification.dto.BulkItemResult;
+import com.enterprise.notification.dto.NotificationRequest;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Reads NDJSON line by line and pushes fixed-size chunks through the bulk pipeline, so heap use is bounded
+// by the chunk size and the maximum line length rather than the upload size.
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BulkIngestService {
+    
+    private static final byte NEWLINE = '\n';
+    
+    private final NotificationService notificationService;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    
+    @Value("${notification.bulk.stream-chunk-size:500}")
+    private int chunkSize;
+    
+    @Value("${notification.bulk.max-line-length:65536}")
+    private int maxLineLength;
+    
+    public void ingest(InputStream input, OutputStream output) throws IOException {
+        ObjectReader requestReader = objectMapper.readerFor(NotificationRequest.class);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        
+        List<NotificationRequest> chunk = new ArrayList<>(chunkSize);
+        List<Long> chunkLines = new ArrayList<>(chunkSize);
+        long lineNumber = 0;
+        StringBuilder buffer = new StringBuilder();
+        LineRead read;
+        while ((read = readLine(reader, buffer)) != LineRead.END) {
+            lineNumber++;
+            if (read == LineRead.TOO_LONG) {
+                write(output, error(lineNumber, "Line exceeds " + maxLineLength + " characters"));
+                continue;
+            }
+            String line = buffer.toString();
+            if (line.isBlank()) {
+                continue;
+            }
+            
+            NotificationRequest request;
+            try {
+                request = requestReader.readValue(line);
+            } catch (JsonProcessingException e) {
+                write(output, error(lineNumber, "Malformed JSON: " + e.getOriginalMessage()));
+                continue;
+            }
+            
+            Set<ConstraintViolation<NotificationRequest>> violations = validator.validate(request);
+            if (!violations.isEmpty()) {
+                write(output, error(lineNumber, violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; "))));
+                continue;
+            }
+            
+            chunk.add(request);
+            chunkLines.add(lineNumber);
+            if (chunk.size() == chunkSize) {
+                flushChunk(chunk, chunkLines, output);
+            }
+        }
+        flushChunk(chunk, chunkLines, output);
+    }
+    
+    // Keeps at most maxLineLength characters of a line and skips the rest, so a huge or newline-free upload is
+    // rejected without being held in memory
+    private LineRead readLine(Reader reader, StringBuilder buffer) throws IOException {
+        buffer.setLength(0);
+        boolean tooLong = false;
+        int c = reader.read();
+        if (c == -1) {
+            return LineRead.END;
+        }
+        while (c != -1 && c != NEWLINE) {
+            if (buffer.length() < maxLineLength) {
+                buffer.append((char) c);
+            } else {
+                tooLong = true;
+            }
+            c = reader.read();
+        }
+        if (!buffer.isEmpty() && buffer.charAt(buffer.length() - 1) == '\r') {
+            buffer.setLength(buffer.length() - 1);
+        }
+        return tooLong ? LineRead.TOO_LONG : LineRead.LINE;
+    }
+    
+    private void flushChunk(List<NotificationRequest> chunk, List<Long> chunkLines, OutputStream output) throws IOException {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        
+        try {
+            List<BulkItemResult> results = notificationService.ingestChunk(chunk);
+            for (int i = 0; i < results.size(); i++) {
+                BulkItemResult result = results.get(i);
+                result.setLine(chunkLines.get(i));
+                write(output, result);
+            }
+        } catch (RuntimeException e) {
+            // The chunk's transaction rolled back as a unit, so every line in it is reported as failed
+            log.error("Failed to ingest bulk chunk starting at line {}", chunkLines.get(0), e);
+            for (Long chunkLine : chunkLines) {
+                write(output, error(chunkLine, "Chunk failed: " + e.getMessage()));
+            }
+        }
+        
+        output.flush();
+        chunk.clear();
+        chunkLines.clear();
+    }
+    
+    private BulkItemResult error(long line, String message) {
+        return BulkItemResult.builder()
+            .line(line)
+            .error(message)
+            .build();
+    }
+    
+    private void write(OutputStream output, BulkItemResult result) throws IOException {
+        output.write(objectMapper.writeValueAsBytes(result));
+        output.write(NEWLINE);
+    }
+    
+    private enum LineRead {
+        LINE,
+        TOO_LONG,
+        END
+    }
+}
@@ -0,0 +1,176 @@
+package com.enterprise.notification.service;
+
+import com.enterprise.notification.domain.entity.DeliveryLog;
+import com.enterprise.notification.domain.entity.DeliveryPayload;
+import com.enterprise.notification.domain.entity.Notification;
+import com.enterprise.notification.repository.DeliveryLogRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Write-behind delivery log: dispatchers enqueue and return, a single writer flushes batches with one JDBC round trip.
+// Delivery is at-most-once. Notification status does not wait for its log row, so rows still queued when the
+// process dies, or in a batch that keeps failing after maxFlushAttempts, are lost and counted as dropped.
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DeliveryLogRecorder {
+    
+    private final DeliveryLogRepository deliveryLogRepository;
+    private final MeterRegistry meterRegistry;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    
+    @Value("${notification.delivery-log.queue-capacity:50000}")
+    private int queueCapacity;
+    
+    @Value("${notification.delivery-log.batch-size:500}")
+    private int batchSize;
+    
+    @Value("${notification.delivery-log.flush-interval:200}")
+    private long flushIntervalMillis;
+    
+    @Value("${notification.delivery-log.compression-threshold:512}")
+    private int compressionThreshold;
+    
+    @Value("${notification.delivery-log.max-flush-attempts:3}")
+    private int maxFlushAttempts;
+    
+    // Doubled after each failed attempt
+    @Value("${notification.delivery-log.retry-backoff:500}")
+    private long retryBackoffMillis;
+    
+    private BatchingWriter<PendingLog> writer;
+    private Counter written;
+    private Counter dropped;
+    
+    @PostConstruct
+    public void start() {
+        written = Counter.builder("notification.delivery-log.written")
+            .register(meterRegistry);
+        dropped = Counter.builder("notification.delivery-log.dropped")
+            .description("Delivery log rows lost because their batch failed on every attempt")
+            .register(meterRegistry);
+        // The writer waits out the flush interval after a batch's first row unless the batch fills first
+        writer = new BatchingWriter<>("delivery-log-writer", queueCapacity, batchSize, flushIntervalMillis, this::flush);
+        Gauge.builder("notification.delivery-log.queued", writer, BatchingWriter::queued)
+            .register(meterRegistry);
+        writer.start();
+    }
+    
+    // Drains whatever is still queued before the datasource goes away
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        writer.stop();
+    }
+    
+    // Blocks when the writer falls behind; dispatch runs on virtual threads, so this throttles rather than stalls
+    public void record(Notification notification, String response, int statusCode) {
+        DeliveryLog deliveryLog = DeliveryLog.builder()
+            .notificationId(notification.getId())
+            .responsePayload(response)
+            .statusCode(statusCode)
+            .attempt(notification.getRetries() + 1)
+            .createdAt(LocalDateTime.now())
+            .build();
+        
+        try {
+            writer.submit(new PendingLog(deliveryLog, serialize(notification)));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Interrupted while recording delivery log for notification {}", notification.getId());
+        }
+    }
+    
+    // Retried with backoff so a brief database outage does not lose the batch; the queue fills meanwhile and
+    // throttles record() callers
+    private void flush(List<PendingLog> batch) {
+        boolean interrupted = false;
+        try {
+            long backoff = retryBackoffMillis;
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    insert(batch);
+                    written.increment(batch.size());
+                    return;
+                } catch (Exception e) {
+                    if (attempt >= maxFlushAttempts) {
+                        dropped.increment(batch.size());
+                        log.error("Failed to write {} delivery log rows after {} attempts", batch.size(), attempt, e);
+                        return;
+                    }
+                    log.warn("Failed to write {} delivery log rows (attempt {}), retrying in {} ms",
+                        batch.size(), attempt, backoff, e);
+                }
+                // Shutting down: the remaining attempts go ahead without waiting. The flag is only restored for
+                // callers writing inline; on the writer it would fail the connection checkout of the final drain.
+                if (!interrupted) {
+                    try {
+                        Thread.sleep(backoff);
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                    }
+                }
+                backoff *= 2;
+            }
+        } finally {
+            if (interrupted && !writer.isWriterThread()) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+    
+    // Each distinct payload in the batch is written once (a multi-row upsert cannot touch the same hash twice).
+    // Payloads and logs commit together, so a retried batch never duplicates rows and no log points at a missing payload.
+    private void insert(List<PendingLog> batch) {
+        LocalDateTime now = LocalDateTime.now();
+        Map<String, DeliveryPayload> payloads = new LinkedHashMap<>();
+        for (PendingLog pending : batch) {
+            String hash = DeliveryPayloadCodec.hash(pending.payload());
+            pending.log().setRequestPayloadHash(hash);
+            payloads.computeIfAbsent(hash, key -> toPayload(key, pending.payload(), now));
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            deliveryLogRepository.batchInsertPayloads(List.copyOf(payloads.values()));
+            deliveryLogRepository.batchInsert(batch.stream().map(PendingLog::log).toList());
+        });
+    }
+    
+    private DeliveryPayload toPayload(String hash, byte[] content, LocalDateTime now) {
+        String compression = DeliveryPayloadCodec.compressionFor(content, compressionThreshold);
+        return DeliveryPayload.builder()
+            .hash(hash)
+            .compression(compression)
+            .content(DeliveryPayloadCodec.DEFLATE.equals(compression) ? DeliveryPayloadCodec.compress(content) : content)
+            .originalSize(content.length)
+            .createdAt(now)
+            .build();
+    }
+    
+    private byte[] serialize(Notification notification) {
+        try {
+            return objectMapper.writeValueAsBytes(notification.getPayload());
+        } catch (JsonProcessingException e) {
+            log.warn("Failed to serialize payload of notification {}", notification.getId(), e);
+            return String.valueOf(notification.getPayload()).getBytes(StandardCharsets.UTF_8);
+        }
+    }
+    
+    private record PendingLog(DeliveryLog log, byte[] payload) {
+    }
+}
@@ -0,0 +1,61 @@
+package com.enterprise.notification.service;
+
+import com.enterprise.notification.domain.entity.DeliveryLog;
+import com.enterprise.notification.domain.entity.DeliveryPayload;
+import com.enterprise.notification.domain.entity.Notification;
+import com.enterprise.notification.dto.DeliveryAttemptResponse;
+import com.enterprise.notification.repository.DeliveryLogRepository;
+import com.enterprise.notification.repository.DeliveryPayloadRepository;
+import com.enterprise.notification.repository.NotificationRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+public class DeliveryLogService {
+    
+    private final NotificationRepository notificationRepository;
+    private final DeliveryLogRepository deliveryLogRepository;
+    private final DeliveryPayloadRepository deliveryPayloadRepository;
+    
+    // Reassembles each attempt with its request payload, fetching every distinct payload once
+    @Transactional(readOnly = true)
+    public List<DeliveryAttemptResponse> getDeliveryAttempts(UUID notificationId) {
+        Notification notification = notificationRepository.findById(notificationId)
+            .orElseThrow(() -> new IllegalArgumentException("Notification not found"));
+        
+        List<DeliveryLog> logs = deliveryLogRepository
+            .findByNotificationIdAndCreatedAtGreaterThanEqualOrderByAttemptDesc(notificationId, notification.getCreatedAt());
+        List<String> hashes = logs.stream()
+            .map(DeliveryLog::getRequestPayloadHash)
+            .filter(Objects::nonNull)
+            .distinct()
+            .toList();
+        Map<String, String> payloads = deliveryPayloadRepository.findAllById(hashes).stream()
+            .collect(Collectors.toMap(DeliveryPayload::getHash, DeliveryLogService::decode));
+        
+        return logs.stream()
+            .map(log -> DeliveryAttemptResponse.builder()
+                .id(log.getId())
+                .attempt(log.getAttempt())
+                .statusCode(log.getStatusCode())
+                .requestPayload(log.getRequestPayloadHash() != null
+                    ? payloads.get(log.getRequestPayloadHash())
+                    : log.getRequestPayload())
+                .responsePayload(log.getResponsePayload())
+                .createdAt(log.getCreatedAt())
+                .build())
+            .toList();
+    }
+    
+    private static String decode(DeliveryPayload payload) {
+        return DeliveryPayloadCodec.decode(payload.getCompression(), payload.getContent(), payload.getOriginalSize());
+    }
+}
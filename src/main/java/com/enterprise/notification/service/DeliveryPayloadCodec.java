@@ -0,0 +1,69 @@
+package com.enterprise.notification.service;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+// Content hashing and compression for delivery payloads; small bodies are stored as-is since compression would not pay off
+public final class DeliveryPayloadCodec {
+    
+    public static final String NONE = "none";
+    public static final String DEFLATE = "deflate";
+    
+    private DeliveryPayloadCodec() {
+    }
+    
+    public static String hash(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+    
+    public static String compressionFor(byte[] content, int threshold) {
+        return content.length >= threshold ? DEFLATE : NONE;
+    }
+    
+    // Fast level: these are write-mostly audit rows, so throughput matters more than ratio
+    public static byte[] compress(byte[] content) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(content);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, content.length / 2));
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+    
+    public static String decode(String compression, byte[] content, int originalSize) {
+        if (!DEFLATE.equals(compression)) {
+            return new String(content, StandardCharsets.UTF_8);
+        }
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(content);
+            byte[] result = new byte[originalSize];
+            int length = 0;
+            while (!inflater.finished() && length < result.length) {
+                length += inflater.inflate(result, length, result.length - length);
+            }
+            return new String(result, 0, length, StandardCharsets.UTF_8);
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt delivery payload", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.enterprise.notification.service;
+
+import com.enterprise.notification.domain.entity.DeviceToken;
+import com.enterprise.notification.dto.DeviceTokenRequest;
+import com.enterprise.notification.repository.DeviceTokenRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DeviceTokenService {
+    
+    private final DeviceTokenRepository deviceTokenRepository;
+    private final MeterRegistry meterRegistry;
+    
+    @Value("${notification.cache.invalid-device-tokens.max-size:1000000}")
+    private int invalidMaxSize;
+    
+    @Value("${notification.cache.invalid-device-tokens.ttl:300000}")
+    private long invalidTtlMillis;
+    
+    @Value("${notification.providers.push.invalid-token-retention-days:30}")
+    private int invalidRetentionDays;
+    
+    // Tokens the provider reported dead. The invalid mark lives on the device_tokens row, so every replica sees it
+    // and re-registering clears it everywhere; this cache only spares the lookup and is kept short because other
+    // replicas cannot evict it.
+    private Cache<String, Boolean> invalidTokens;
+    private Counter pruned;
+    
+    @PostConstruct
+    public void init() {
+        invalidTokens = Caffeine.newBuilder()
+            .maximumSize(invalidMaxSize)
+            .expireAfterWrite(Duration.ofMillis(invalidTtlMillis))
+            .build();
+        pruned = Counter.builder("notification.push.tokens.pruned")
+            .register(meterRegistry);
+    }
+    
+    public List<DeviceToken> getTokens(String userId) {
+        return deviceTokenRepository.findByUserId(userId);
+    }
+    
+    public List<String> getDeliverableTokens(String userId) {
+        return deviceTokenRepository.findByUserIdAndInvalidatedAtIsNull(userId).stream()
+            .map(DeviceToken::getToken)
+            .toList();
+    }
+    
+    // A token moves to whichever user registered it last; re-registering also clears an earlier invalid mark
+    @Transactional
+    public DeviceToken register(String userId, DeviceTokenRequest request) {
+        DeviceToken deviceToken = deviceTokenRepository.findByToken(request.getToken())
+            .orElseGet(() -> DeviceToken.builder().token(request.getToken()).build());
+        deviceToken.setUserId(userId);
+        deviceToken.setPlatform(request.getPlatform());
+        deviceToken.setLastSeenAt(LocalDateTime.now());
+        deviceToken.setInvalidatedAt(null);
+        invalidTokens.invalidate(request.getToken());
+        return deviceTokenRepository.save(deviceToken);
+    }
+    
+    public void unregister(String userId, String token) {
+        deviceTokenRepository.deleteByUserIdAndToken(userId, token);
+    }
+    
+    // Tokens that were never registered can only be caught by this replica's cache
+    public boolean isKnownInvalid(String token) {
+        if (invalidTokens.getIfPresent(token) != null) {
+            return true;
+        }
+        if (deviceTokenRepository.existsByTokenAndInvalidatedAtIsNotNull(token)) {
+            invalidTokens.put(token, Boolean.TRUE);
+            return true;
+        }
+        return false;
+    }
+    
+    public void markInvalid(Collection<String> tokens) {
+        if (tokens.isEmpty()) {
+            return;
+        }
+        tokens.forEach(token -> invalidTokens.put(token, Boolean.TRUE));
+        int marked = deviceTokenRepository.markInvalid(tokens, LocalDateTime.now());
+        pruned.increment(tokens.size());
+        log.info("Pruned {} unregistered device tokens ({} registered)", tokens.size(), marked);
+    }
+    
+    // Invalid rows are kept for a while so the mark is shared across replicas, then deleted
+    @Scheduled(fixedDelayString = "${notification.providers.push.invalid-token-purge-interval:3600000}")
+    public void purgeInvalid() {
+        int deleted = deviceTokenRepository.deleteByInvalidatedAtBefore(LocalDateTime.now().minusDays(invalidRetentionDays));
+        if (deleted > 0) {
+            log.info("Deleted {} device tokens invalidated more than {} days ago", deleted, invalidRetentionDays);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.enterprise.notification.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+// Runs tasks with the same key one after another and tasks with different keys concurrently. Each key keeps
+// only the tail of its chain, which is dropped as soon as the chain drains.
+public class KeyOrderedExecutor {
+    
+    private final Executor executor;
+    private final ConcurrentHashMap<String, CompletableFuture<Void>> tails = new ConcurrentHashMap<>();
+    
+    public KeyOrderedExecutor(Executor executor) {
+        this.executor = executor;
+    }
+    
+    public CompletableFuture<Void> submit(String key, Runnable task) {
+        CompletableFuture<Void> next = tails.compute(key, (k, tail) -> tail == null
+            ? CompletableFuture.runAsync(task, executor)
+            // A failed predecessor must not block or fail the tasks queued behind it
+            : tail.handle((result, error) -> null).thenRunAsync(task, executor));
+        next.whenComplete((result, error) -> tails.remove(key, next));
+        return next;
+    }
+    
+    public int activeKeys() {
+        return tails.size();
+    }
+}
@@ -0,0 +1,143 @@
+package com.enterprise.notification.service;
+
+import com.enterprise.notification.domain.entity.Notification;
+import com.enterprise.notification.domain.enums.NotificationStatus;
+import com.enterprise.notification.repository.NotificationRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class NotificationClaimService {
+    
+    private final NotificationRepository notificationRepository;
+    private final KafkaTemplate<String, Notification> kafkaTemplate;
+    
+    @Value("${notification.scheduler.instance-id:${HOSTNAME:notification-service}}")
+    private String instanceId;
+    
+    @Value("${notification.scheduler.claim-lease:300000}")
+    private long claimLeaseMillis;
+    
+    private String owner;
+    
+    @PostConstruct
+    public void init() {
+        // Unique per process so a restarted pod never mistakes an old lease for its own
+        owner = instanceId + "-" + UUID.randomUUID();
+        log.info("Notification claims will be taken as {}", owner);
+    }
+    
+    public String getOwner() {
+        return owner;
+    }
+    
+    // Claims held under a role-specific owner can be released without touching this process's other claims
+    public String getOwner(String role) {
+        return owner + "-" + role;
+    }
+    
+    @Transactional
+    public List<Notification> claimScheduled(LocalDateTime dueBefore, int limit) {
+        return claimScheduled(dueBefore, limit, claimLeaseMillis, owner);
+    }
+    
+    // Callers holding claims until a future fire time pass a lease that outlives the wait
+    @Transactional
+    public List<Notification> claimScheduled(LocalDateTime dueBefore, int limit, long leaseMillis, String claimOwner) {
+        List<Notification> due = notificationRepository.lockDueScheduled(dueBefore, limit);
+        return claim(due, leaseMillis, claimOwner);
+    }
+    
+    @Transactional
+    public List<Notification> claimRetries(
+        LocalDateTime now,
+        int maxRetries,
+        LocalDateTime afterAttemptAt,
+        UUID afterId,
+        int limit
+    ) {
+        List<Notification> due = notificationRepository.lockDueRetries(now, maxRetries, afterAttemptAt, afterId, limit);
+        return claim(due, claimLeaseMillis, owner);
+    }
+    
+    // Publishes claimed rows and moves only the acknowledged ones on; the rest keep their lease and are reclaimed
+    public int publishClaimed(List<Notification> claimed, Function<Notification, String> topics, NotificationStatus next) {
+        return publishClaimed(claimed, topics, next, owner);
+    }
+    
+    public int publishClaimed(
+        List<Notification> claimed,
+        Function<Notification, String> topics,
+        NotificationStatus next,
+        String claimOwner
+    ) {
+        List<CompletableFuture<UUID>> sends = claimed.stream()
+            .map(notification -> {
+                notification.setStatus(next);
+                notification.setClaimedBy(null);
+                notification.setLeaseExpiresAt(null);
+                return kafkaTemplate.send(topics.apply(notification), notification.getUserId(), notification)
+                    .thenApply(result -> notification.getId());
+            })
+            .toList();
+        
+        List<UUID> published = new ArrayList<>(sends.size());
+        for (CompletableFuture<UUID> send : sends) {
+            try {
+                published.add(send.join());
+            } catch (Exception e) {
+                log.warn("Failed to publish claimed notification", e);
+            }
+        }
+        
+        if (published.isEmpty()) {
+            return 0;
+        }
+        return notificationRepository.completeClaim(published, NotificationStatus.CLAIMED, claimOwner, next);
+    }
+    
+    public int releaseExpiredClaims() {
+        return notificationRepository.releaseExpiredClaims(LocalDateTime.now());
+    }
+    
+    public int releaseClaims(String claimOwner) {
+        return notificationRepository.releaseClaims(claimOwner, LocalDateTime.now());
+    }
+    
+    private List<Notification> claim(List<Notification> due, long leaseMillis, String claimOwner) {
+        if (due.isEmpty()) {
+            return due;
+        }
+        
+        LocalDateTime leaseExpiresAt = LocalDateTime.now().plus(Duration.ofMillis(leaseMillis));
+        notificationRepository.claim(
+            due.stream().map(Notification::getId).toList(),
+            NotificationStatus.CLAIMED,
+            claimOwner,
+            leaseExpiresAt
+        );
+        
+        // The bulk update cleared the persistence context, so these are detached snapshots
+        due.forEach(notification -> {
+            notification.setStatus(NotificationStatus.CLAIMED);
+            notification.setClaimedBy(claimOwner);
+            notification.setLeaseExpiresAt(leaseExpiresAt);
+        });
+        return due;
+    }
+}
@@ -1,12 +1,32 @@
 package com.enterprise.notification.service;
 
 import com.enterprise.notification.domain.entity.Notification;
+import com.enterprise.notification.domain.enums.NotificationPriority;
+import com.enterprise.notification.domain.enums.NotificationStatus;
+import com.enterprise.notification.domain.enums.NotificationType;
+import com.enterprise.notification.kafka.NotificationTopics;
 import com.enterprise.notification.service.dispatcher.NotificationDispatcher;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Service
 @RequiredArgsConstructor
@@ -14,6 +34,75 @@ import java.util.List;
 public class NotificationDispatcherService {
     
     private final List<NotificationDispatcher> dispatchers;
+    private final NotificationStatusWriter statusWriter;
+    private final RetryPolicy retryPolicy;
+    private final MeterRegistry meterRegistry;
+    private final Environment environment;
+    
+    // Dispatchers block on SMTP/HTTP calls, so the real limit is this cap on the whole pod, not a thread count
+    @Value("${notification.dispatch.max-concurrency:2000}")
+    private int maxConcurrency;
+    
+    // Per channel, overridable under notification.dispatch.channels, so one channel cannot take every global permit
+    @Value("${notification.dispatch.channel-max-concurrency:1000}")
+    private int channelMaxConcurrency;
+    
+    // HIGH runs on its own permits instead of the channel's, so it never waits behind NORMAL or BULK dispatches
+    @Value("${notification.dispatch.lanes.high.max-concurrency:200}")
+    private int highMaxConcurrency;
+    
+    // BULK takes one of these on top of a channel permit, leaving the rest of the channel's capacity to NORMAL
+    @Value("${notification.dispatch.lanes.bulk.max-concurrency:500}")
+    private int bulkMaxConcurrency;
+    
+    private ExecutorService executor;
+    private KeyOrderedExecutor orderedExecutor;
+    private final Map<NotificationType, Semaphore> permits = new EnumMap<>(NotificationType.class);
+    private final Map<NotificationPriority, Timer> latency = new EnumMap<>(NotificationPriority.class);
+    private Semaphore globalPermits;
+    private Semaphore highPermits;
+    private Semaphore bulkPermits;
+    private final AtomicInteger queued = new AtomicInteger();
+    
+    @PostConstruct
+    public void init() {
+        executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("dispatch-", 0).factory());
+        orderedExecutor = new KeyOrderedExecutor(executor);
+        for (NotificationType type : NotificationType.values()) {
+            String channel = NotificationTopics.channel(type);
+            int limit = environment.getProperty(
+                "notification.dispatch.channels." + channel + ".max-concurrency", Integer.class, channelMaxConcurrency);
+            Semaphore channelPermits = new Semaphore(limit);
+            permits.put(type, channelPermits);
+            Gauge.builder("notification.dispatch.channel.in-flight", channelPermits, semaphore -> limit - semaphore.availablePermits())
+                .tag("channel", channel)
+                .register(meterRegistry);
+        }
+        globalPermits = new Semaphore(maxConcurrency);
+        highPermits = new Semaphore(highMaxConcurrency);
+        bulkPermits = new Semaphore(bulkMaxConcurrency);
+        for (NotificationPriority priority : NotificationPriority.values()) {
+            latency.put(priority, Timer.builder("notification.dispatch.latency")
+                .description("Time from creation (or scheduled time) to the start of the first delivery attempt")
+                .tag("lane", priority.name().toLowerCase())
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry));
+        }
+        
+        Gauge.builder("notification.dispatch.in-flight", globalPermits, semaphore -> maxConcurrency - semaphore.availablePermits())
+            .description("Dispatches holding one of the notification.dispatch.max-concurrency permits")
+            .register(meterRegistry);
+        Gauge.builder("notification.dispatch.queued", queued, AtomicInteger::get)
+            .description("Dispatches waiting behind the same user or for a permit")
+            .register(meterRegistry);
+        Gauge.builder("notification.dispatch.active-users", orderedExecutor, KeyOrderedExecutor::activeKeys)
+            .register(meterRegistry);
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
     
     public void dispatch(Notification notification) {
         dispatchers.stream()
@@ -24,4 +113,69 @@ public class NotificationDispatcherService {
                 () -> log.error("No dispatcher found for notification type: {}", notification.getType())
             );
     }
+    
+    // Runs on a virtual thread; notifications for the same user, channel and priority are dispatched in submission
+    // order. Ordering is not kept across channels or lanes, so a user's slow SMS never holds back their push
+    // notifications and a queued campaign message never holds back their OTP.
+    public CompletableFuture<Void> dispatchAsync(Notification notification) {
+        List<Semaphore> required = permitsFor(notification);
+        String key = notification.getUserId() + ":" + notification.getType() + ":" + notification.getPriority();
+        queued.incrementAndGet();
+        return orderedExecutor.submit(key, () -> {
+            required.forEach(Semaphore::acquireUninterruptibly);
+            queued.decrementAndGet();
+            recordLatency(notification);
+            try {
+                dispatchOrFail(notification);
+            } finally {
+                required.forEach(Semaphore::release);
+            }
+        });
+    }
+    
+    // A dispatcher that throws is recorded as a failed attempt and goes through the retry queue rather than failing
+    // the consumed batch, whose redelivery would re-send every notification in it that already succeeded
+    private void dispatchOrFail(Notification notification) {
+        try {
+            dispatch(notification);
+        } catch (Exception e) {
+            log.error("Dispatch of notification {} failed", notification.getId(), e);
+            notification.setStatus(NotificationStatus.FAILED);
+            notification.setRetries(notification.getRetries() + 1);
+            notification.setNextAttemptAt(retryPolicy.nextAttemptAt(notification.getRetries()));
+            // Rejected by the status guard if the dispatcher already settled the row; if this write throws the
+            // outcome is not durable, so the batch fails and is redelivered
+            statusWriter.write(notification);
+        }
+    }
+    
+    // Acquired in list order: lane, then channel, then global. Every dispatch takes them in this order, so waits cannot
+    // deadlock, and a dispatch waiting on a lane or channel permit never sits on one of the global ones.
+    private List<Semaphore> permitsFor(Notification notification) {
+        return switch (notification.getPriority()) {
+            case HIGH -> List.of(highPermits, globalPermits);
+            case NORMAL -> List.of(permits.get(notification.getType()), globalPermits);
+            case BULK -> List.of(bulkPermits, permits.get(notification.getType()), globalPermits);
+        };
+    }
+    
+    // Retries are left out, their delay is the backoff rather than queueing
+    private void recordLatency(Notification notification) {
+        if (notification.getRetries() > 0 || notification.getCreatedAt() == null) {
+            return;
+        }
+        LocalDateTime due = notification.getCreatedAt();
+        if (notification.getScheduledAt() != null && notification.getScheduledAt().isAfter(due)) {
+            due = notification.getScheduledAt();
+        }
+        latency.get(notification.getPriority()).record(Duration.between(due, LocalDateTime.now()));
+    }
+    
+    // Fans a consumed batch out and returns once every dispatch has finished
+    public void dispatchAll(List<Notification> notifications) {
+        CompletableFuture<?>[] dispatches = notifications.stream()
+            .map(this::dispatchAsync)
+            .toArray(CompletableFuture[]::new);
+        CompletableFuture.allOf(dispatches).join();
+    }
 }
@@ -1,22 +1,28 @@
 package com.enterprise.notification.service;
 
 import com.enterprise.notification.domain.entity.Notification;
-import com.enterprise.notification.domain.entity.UserPreference;
+import com.enterprise.notification.domain.entity.OutboxEvent;
+import com.enterprise.notification.domain.enums.NotificationPriority;
 import com.enterprise.notification.domain.enums.NotificationStatus;
 import com.enterprise.notification.domain.enums.NotificationType;
+import com.enterprise.notification.dto.BulkItemResult;
 import com.enterprise.notification.dto.NotificationRequest;
 import com.enterprise.notification.dto.NotificationResponse;
+import com.enterprise.notification.kafka.NotificationTopics;
 import com.enterprise.notification.repository.NotificationRepository;
+import com.enterprise.notification.repository.OutboxEventRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @Service
@@ -26,7 +32,7 @@ public class NotificationService {
     
     private final NotificationRepository notificationRepository;
     private final UserPreferenceService userPreferenceService;
-    private final KafkaTemplate<String, Notification> kafkaTemplate;
+    private final OutboxEventRepository outboxEventRepository;
     
     @Transactional
     public NotificationResponse sendNotification(NotificationRequest request) {
@@ -34,32 +40,67 @@ public class NotificationService {
             throw new IllegalStateException("User has disabled " + request.getType() + " notifications");
         }
         
-        Notification notification = Notification.builder()
-            .userId(request.getUserId())
-            .type(request.getType())
-            .status(request.getScheduledAt() != null ? NotificationStatus.PENDING : NotificationStatus.PENDING)
-            .templateId(request.getTemplateId())
-            .payload(request.getPayload())
-            .scheduledAt(request.getScheduledAt())
-            .retries(0)
-            .build();
-        
+        Notification notification = buildNotification(request, LocalDateTime.now());
         notification = notificationRepository.save(notification);
         
-        if (request.getScheduledAt() == null || request.getScheduledAt().isBefore(LocalDateTime.now())) {
-            kafkaTemplate.send("notifications.request", notification);
+        if (notification.getStatus() == NotificationStatus.QUEUED) {
+            outboxEventRepository.save(outboxEvent(notification, NotificationTopics.request(notification)));
         }
         
         return mapToResponse(notification);
     }
     
+    // One preference lookup and one JDBC batch insert each for notifications and their outbox rows
     @Transactional
     public List<NotificationResponse> sendBulkNotifications(List<NotificationRequest> requests) {
-        return requests.stream()
-            .map(this::sendNotification)
+        Map<String, Integer> enabledChannels = userPreferenceService.getEnabledChannels(
+            requests.stream().map(NotificationRequest::getUserId).distinct().toList());
+        
+        for (NotificationRequest request : requests) {
+            if (!UserPreferenceService.isChannelEnabled(enabledChannels.get(request.getUserId()), request.getType())) {
+                throw new IllegalStateException("User has disabled " + request.getType() + " notifications");
+            }
+        }
+        
+        List<Notification> notifications = persistWithOutbox(requests);
+        
+        return notifications.stream()
+            .map(this::mapToResponse)
             .toList();
     }
     
+    // Streaming variant: disabled channels are reported per item instead of failing the whole chunk
+    @Transactional
+    public List<BulkItemResult> ingestChunk(List<NotificationRequest> requests) {
+        Map<String, Integer> enabledChannels = userPreferenceService.getEnabledChannels(
+            requests.stream().map(NotificationRequest::getUserId).distinct().toList());
+        
+        BulkItemResult[] results = new BulkItemResult[requests.size()];
+        List<NotificationRequest> accepted = new ArrayList<>(requests.size());
+        List<Integer> acceptedIndexes = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            NotificationRequest request = requests.get(i);
+            if (UserPreferenceService.isChannelEnabled(enabledChannels.get(request.getUserId()), request.getType())) {
+                accepted.add(request);
+                acceptedIndexes.add(i);
+            } else {
+                results[i] = BulkItemResult.builder()
+                    .error("User has disabled " + request.getType() + " notifications")
+                    .build();
+            }
+        }
+        
+        List<Notification> notifications = persistWithOutbox(accepted);
+        for (int i = 0; i < notifications.size(); i++) {
+            Notification notification = notifications.get(i);
+            results[acceptedIndexes.get(i)] = BulkItemResult.builder()
+                .id(notification.getId())
+                .status(notification.getStatus())
+                .build();
+        }
+        return Arrays.asList(results);
+    }
+    
     public NotificationResponse getNotification(UUID id) {
         return notificationRepository.findById(id)
             .map(this::mapToResponse)
@@ -91,7 +132,7 @@ public class NotificationService {
         notification.setStatus(NotificationStatus.RETRYING);
         notificationRepository.save(notification);
         
-        kafkaTemplate.send("notifications.retry", notification);
+        outboxEventRepository.save(outboxEvent(notification, NotificationTopics.retry(notification)));
     }
     
     @Transactional
@@ -103,16 +144,57 @@ public class NotificationService {
         notificationRepository.save(notification);
     }
     
-    private boolean isNotificationAllowed(String userId, NotificationType type) {
-        UserPreference preference = userPreferenceService.getUserPreference(userId);
+    private List<Notification> persistWithOutbox(List<NotificationRequest> requests) {
+        if (requests.isEmpty()) {
+            return List.of();
+        }
+        
+        LocalDateTime now = LocalDateTime.now();
+        List<Notification> notifications = requests.stream()
+            .map(request -> {
+                // Ids and timestamps are assigned here because the insert bypasses the persistence context
+                Notification notification = buildNotification(request, now);
+                notification.setId(UUID.randomUUID());
+                notification.setCreatedAt(now);
+                notification.setUpdatedAt(now);
+                return notification;
+            })
+            .toList();
+        
+        notificationRepository.batchInsert(notifications);
+        outboxEventRepository.batchInsert(notifications.stream()
+            .filter(notification -> notification.getStatus() == NotificationStatus.QUEUED)
+            .map(notification -> outboxEvent(notification, NotificationTopics.request(notification)))
+            .toList());
+        return notifications;
+    }
+    
+    // Published right away unless scheduled for later; only PENDING rows are picked up by the scheduler
+    private Notification buildNotification(NotificationRequest request, LocalDateTime now) {
+        boolean immediate = request.getScheduledAt() == null || request.getScheduledAt().isBefore(now);
         
-        return switch (type) {
-            case EMAIL -> preference.getEmailEnabled();
-            case SMS -> preference.getSmsEnabled();
-            case PUSH -> preference.getPushEnabled();
-            case IN_APP -> preference.getInAppEnabled();
-            case WEBHOOK -> preference.getWebhookEnabled();
-        };
+        return Notification.builder()
+            .userId(request.getUserId())
+            .type(request.getType())
+            .status(immediate ? NotificationStatus.QUEUED : NotificationStatus.PENDING)
+            .priority(request.getPriority() != null ? request.getPriority() : NotificationPriority.NORMAL)
+            .templateId(request.getTemplateId())
+            .payload(request.getPayload())
+            .scheduledAt(request.getScheduledAt())
+            .retries(0)
+            .build();
+    }
+    
+    // Written in the same transaction as the notification; OutboxRelay publishes it after commit
+    private OutboxEvent outboxEvent(Notification notification, String topic) {
+        return OutboxEvent.builder()
+            .notificationId(notification.getId())
+            .topic(topic)
+            .build();
+    }
+    
+    private boolean isNotificationAllowed(String userId, NotificationType type) {
+        return userPreferenceService.isChannelEnabled(userId, type);
     }
     
     private NotificationResponse mapToResponse(Notification notification) {
@@ -121,6 +203,7 @@ public class NotificationService {
             .userId(notification.getUserId())
             .type(notification.getType())
             .status(notification.getStatus())
+            .priority(notification.getPriority())
             .templateId(notification.getTemplateId())
             .payload(notification.getPayload())
             .scheduledAt(notification.getScheduledAt())
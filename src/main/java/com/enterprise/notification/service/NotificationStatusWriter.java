@@ -0,0 +1,124 @@
+package com.enterprise.notification.service;
+
+import com.enterprise.notification.domain.entity.Notification;
+import com.enterprise.notification.repository.NotificationRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+// Coalesces status transitions from concurrently completing dispatches into one batched UPDATE per round trip.
+// Unlike the delivery log this is not write-behind: callers wait for their row so Kafka offsets are only
+// committed once the outcome is stored.
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class NotificationStatusWriter {
+    
+    private final NotificationRepository notificationRepository;
+    private final MeterRegistry meterRegistry;
+    
+    @Value("${notification.status-writer.queue-capacity:10000}")
+    private int queueCapacity;
+    
+    @Value("${notification.status-writer.batch-size:500}")
+    private int batchSize;
+    
+    @Value("${notification.status-writer.linger:5}")
+    private long lingerMillis;
+    
+    private BatchingWriter<PendingUpdate> writer;
+    private Counter skipped;
+    private DistributionSummary batchSizes;
+    
+    @PostConstruct
+    public void start() {
+        skipped = Counter.builder("notification.status-writer.skipped")
+            .description("Status updates not applied because the notification was no longer in flight, e.g. cancelled")
+            .register(meterRegistry);
+        batchSizes = DistributionSummary.builder("notification.status-writer.batch-size")
+            .register(meterRegistry);
+        // Callers are blocked, so the writer only lingers briefly for others completing at the same moment
+        writer = new BatchingWriter<>("notification-status-writer", queueCapacity, batchSize, lingerMillis, this::flush);
+        Gauge.builder("notification.status-writer.queued", writer, BatchingWriter::queued)
+            .register(meterRegistry);
+        writer.start();
+    }
+    
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        writer.stop();
+    }
+    
+    // Completes with false when the guard rejected the update because the row had moved on
+    public CompletableFuture<Boolean> submit(Notification notification) {
+        PendingUpdate update = new PendingUpdate(notification, new CompletableFuture<>());
+        try {
+            writer.submit(update);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            update.result().completeExceptionally(e);
+        }
+        return update.result();
+    }
+    
+    public boolean write(Notification notification) {
+        return submit(notification).join();
+    }
+    
+    private void flush(List<PendingUpdate> batch) {
+        try {
+            apply(batch);
+        } catch (Exception e) {
+            if (batch.size() == 1) {
+                log.error("Failed to write status update for notification {}", batch.get(0).notification().getId(), e);
+                batch.get(0).result().completeExceptionally(e);
+            } else {
+                // The batch rolled back as a whole; retry row by row so one bad row only fails its own caller
+                log.warn("Failed to write {} notification status updates as a batch, retrying individually",
+                    batch.size(), e);
+                for (PendingUpdate update : batch) {
+                    try {
+                        apply(List.of(update));
+                    } catch (Exception rowFailure) {
+                        log.error("Failed to write status update for notification {}",
+                            update.notification().getId(), rowFailure);
+                        update.result().completeExceptionally(rowFailure);
+                    }
+                }
+            }
+        }
+    }
+    
+    private void apply(List<PendingUpdate> batch) {
+        int[] counts = notificationRepository.batchUpdateStatus(
+            batch.stream().map(PendingUpdate::notification).toList(),
+            LocalDateTime.now()
+        );
+        batchSizes.record(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            PendingUpdate update = batch.get(i);
+            // Statement.SUCCESS_NO_INFO (-2) means the driver applied it without reporting a count
+            boolean applied = counts[i] != 0;
+            if (!applied) {
+                skipped.increment();
+                log.info("Notification {} changed status while being dispatched; {} not recorded",
+                    update.notification().getId(), update.notification().getStatus());
+            }
+            update.result().complete(applied);
+        }
+    }
+    
+    private record PendingUpdate(Notification notification, CompletableFuture<Boolean> result) {
+    }
+}
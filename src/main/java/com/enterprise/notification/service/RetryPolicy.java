@@ -0,0 +1,48 @@
+package com.enterprise.notification.service;
+
+import com.enterprise.notification.domain.entity.Notification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+@Component
+public class RetryPolicy {
+    
+    @Value("${notification.retry.max-attempts}")
+    private int maxRetries;
+    
+    // Exponential backoff: 1, 2, 5, 10, 20 minutes
+    @Value("${notification.retry.backoff-minutes:1,2,5,10,20}")
+    private long[] backoffMinutes;
+    
+    @Value("${notification.retry.max-park-age:86400000}")
+    private long maxParkAgeMillis;
+    
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+    
+    // Null once the retry budget is exhausted, which drops the row out of the retry queue
+    public LocalDateTime nextAttemptAt(int retries, LocalDateTime failedAt) {
+        if (retries >= maxRetries) {
+            return null;
+        }
+        int retryIndex = Math.min(retries, backoffMinutes.length - 1);
+        return failedAt.plusMinutes(backoffMinutes[retryIndex]);
+    }
+    
+    public LocalDateTime nextAttemptAt(int retries) {
+        return nextAttemptAt(retries, LocalDateTime.now());
+    }
+    
+    // Parking does not consume a retry, so a notification that keeps getting parked is bounded by its age instead
+    public boolean parkExpired(Notification notification) {
+        LocalDateTime since = notification.getCreatedAt();
+        if (notification.getScheduledAt() != null && (since == null || notification.getScheduledAt().isAfter(since))) {
+            since = notification.getScheduledAt();
+        }
+        return since != null && since.plus(Duration.ofMillis(maxParkAgeMillis)).isBefore(LocalDateTime.now());
+    }
+}
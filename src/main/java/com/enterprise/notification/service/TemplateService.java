@@ -3,26 +3,85 @@ package com.enterprise.notification.service;
 import com.enterprise.notification.domain.entity.Template;
 import com.enterprise.notification.dto.TemplateRequest;
 import com.enterprise.notification.repository.TemplateRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.github.mustachejava.DefaultMustacheFactory;
 import com.github.mustachejava.Mustache;
 import com.github.mustachejava.MustacheFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.io.StringReader;
 import java.io.StringWriter;
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class TemplateService {
     
     private final TemplateRepository templateRepository;
+    private final MeterRegistry meterRegistry;
     private final MustacheFactory mustacheFactory = new DefaultMustacheFactory();
     
+    @Value("${notification.cache.templates.max-size:1000}")
+    private int maxSize;
+    
+    // Bounds how long another replica's update can go unnoticed
+    @Value("${notification.cache.templates.ttl:300000}")
+    private long ttlMillis;
+    
+    @Value("${notification.cache.templates.warm-on-startup:true}")
+    private boolean warmOnStartup;
+    
+    private Cache<Long, CompiledTemplate> compiledTemplates;
+    
+    @PostConstruct
+    public void init() {
+        compiledTemplates = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterWrite(Duration.ofMillis(ttlMillis))
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, compiledTemplates, "templates");
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmCache() {
+        if (!warmOnStartup) {
+            return;
+        }
+        
+        Page<Template> page = templateRepository.findAll(PageRequest.of(0, 200));
+        int warmed = 0;
+        while (true) {
+            for (Template template : page) {
+                cacheCompiled(template);
+                warmed++;
+            }
+            if (!page.hasNext() || warmed >= maxSize) {
+                break;
+            }
+            page = templateRepository.findAll(page.nextPageable());
+        }
+        log.info("Warmed template cache with {} compiled templates", warmed);
+    }
+    
     @Transactional
     public Template createTemplate(TemplateRequest request) {
         Template template = Template.builder()
@@ -47,7 +106,9 @@ public class TemplateService {
         template.setBody(request.getBody());
         template.setPlaceholders(request.getPlaceholders());
         
-        return templateRepository.save(template);
+        Template saved = templateRepository.save(template);
+        evictAfterCommit(id);
+        return saved;
     }
     
     public Template getTemplate(Long id) {
@@ -60,8 +121,10 @@ public class TemplateService {
     }
     
     public String renderTemplate(Long templateId, Map<String, Object> data) {
-        Template template = getTemplate(templateId);
-        return renderTemplate(template.getBody(), data);
+        CompiledTemplate compiled = compiledTemplates.get(templateId, id -> compile(getTemplate(id)));
+        StringWriter writer = new StringWriter();
+        compiled.body().execute(writer, data);
+        return writer.toString();
     }
     
     public String renderTemplate(String templateContent, Map<String, Object> data) {
@@ -70,4 +133,36 @@ public class TemplateService {
         mustache.execute(writer, data);
         return writer.toString();
     }
+    
+    private void cacheCompiled(Template template) {
+        // Never replace a newer version that a concurrent render already loaded
+        compiledTemplates.asMap().merge(template.getId(), compile(template),
+            (current, loaded) -> loaded.isNewerThan(current) ? loaded : current);
+    }
+    
+    private CompiledTemplate compile(Template template) {
+        Mustache body = mustacheFactory.compile(new StringReader(template.getBody()), "template-" + template.getId());
+        return new CompiledTemplate(template.getUpdatedAt(), body);
+    }
+    
+    // Evicting before commit would let a concurrent render re-cache the old row
+    private void evictAfterCommit(Long id) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            compiledTemplates.invalidate(id);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                compiledTemplates.invalidate(id);
+            }
+        });
+    }
+    
+    private record CompiledTemplate(LocalDateTime version, Mustache body) {
+        
+        private boolean isNewerThan(CompiledTemplate other) {
+            return version != null && (other.version == null || version.isAfter(other.version));
+        }
+    }
 }
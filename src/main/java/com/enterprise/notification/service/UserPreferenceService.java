@@ -1,21 +1,89 @@
 package com.enterprise.notification.service;
 
 import com.enterprise.notification.domain.entity.UserPreference;
+import com.enterprise.notification.domain.enums.NotificationType;
 import com.enterprise.notification.dto.UserPreferenceRequest;
 import com.enterprise.notification.repository.UserPreferenceRepository;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
 public class UserPreferenceService {
     
+    // One bit per NotificationType ordinal; users without a row get every channel
+    private static final int ALL_CHANNELS = (1 << NotificationType.values().length) - 1;
+    
     private final UserPreferenceRepository userPreferenceRepository;
+    private final MeterRegistry meterRegistry;
+    
+    @Value("${notification.cache.preferences.max-size:100000}")
+    private int maxSize;
+    
+    @Value("${notification.cache.preferences.ttl:60000}")
+    private long ttlMillis;
+    
+    private LoadingCache<String, Integer> enabledChannels;
+    
+    @PostConstruct
+    public void init() {
+        enabledChannels = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterWrite(Duration.ofMillis(ttlMillis))
+            .recordStats()
+            .build(new CacheLoader<>() {
+                @Override
+                public Integer load(String userId) {
+                    return userPreferenceRepository.findByUserId(userId)
+                        .map(UserPreferenceService::toChannelMask)
+                        .orElse(ALL_CHANNELS);
+                }
+                
+                @Override
+                public Map<String, Integer> loadAll(Set<? extends String> userIds) {
+                    Map<String, Integer> masks = new HashMap<>();
+                    userIds.forEach(userId -> masks.put(userId, ALL_CHANNELS));
+                    userPreferenceRepository.findByUserIdIn(List.copyOf(userIds))
+                        .forEach(preference -> masks.put(preference.getUserId(), toChannelMask(preference)));
+                    return masks;
+                }
+            });
+        CaffeineCacheMetrics.monitor(meterRegistry, enabledChannels, "user-preferences");
+    }
+    
+    public boolean isChannelEnabled(String userId, NotificationType type) {
+        return isChannelEnabled(enabledChannels.get(userId), type);
+    }
+    
+    // Misses for the whole collection are resolved with a single findByUserIdIn query
+    public Map<String, Integer> getEnabledChannels(Collection<String> userIds) {
+        return enabledChannels.getAll(userIds);
+    }
+    
+    public static boolean isChannelEnabled(int channelMask, NotificationType type) {
+        return (channelMask & (1 << type.ordinal())) != 0;
+    }
     
     public UserPreference getUserPreference(String userId) {
         return userPreferenceRepository.findByUserId(userId)
-            .orElseGet(() -> createDefaultPreference(userId));
+            .orElseGet(() -> defaultPreference(userId));
     }
     
     @Transactional
@@ -38,11 +106,14 @@ public class UserPreferenceService {
             preference.setWebhookEnabled(request.getWebhookEnabled());
         }
         
-        return userPreferenceRepository.save(preference);
+        UserPreference saved = userPreferenceRepository.save(preference);
+        evictAfterCommit(userId);
+        return saved;
     }
     
-    private UserPreference createDefaultPreference(String userId) {
-        UserPreference preference = UserPreference.builder()
+    // Absent rows mean "all defaults"; they are only persisted once a user changes something
+    private UserPreference defaultPreference(String userId) {
+        return UserPreference.builder()
             .userId(userId)
             .emailEnabled(true)
             .smsEnabled(true)
@@ -50,7 +121,32 @@ public class UserPreferenceService {
             .inAppEnabled(true)
             .webhookEnabled(true)
             .build();
-        
-        return userPreferenceRepository.save(preference);
+    }
+    
+    private void evictAfterCommit(String userId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            enabledChannels.invalidate(userId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                enabledChannels.invalidate(userId);
+            }
+        });
+    }
+    
+    private static int toChannelMask(UserPreference preference) {
+        int mask = 0;
+        mask |= channelBit(NotificationType.EMAIL, preference.getEmailEnabled());
+        mask |= channelBit(NotificationType.SMS, preference.getSmsEnabled());
+        mask |= channelBit(NotificationType.PUSH, preference.getPushEnabled());
+        mask |= channelBit(NotificationType.IN_APP, preference.getInAppEnabled());
+        mask |= channelBit(NotificationType.WEBHOOK, preference.getWebhookEnabled());
+        return mask;
+    }
+    
+    private static int channelBit(NotificationType type, Boolean enabled) {
+        return Boolean.TRUE.equals(enabled) ? 1 << type.ordinal() : 0;
     }
 }
@@ -0,0 +1,130 @@
+package com.enterprise.notification.service.dispatcher;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Circuit breaker plus AIMD concurrency limit for one webhook URL. Uses a lock rather than
+// synchronized so waiting virtual threads do not pin their carriers.
+class AdaptiveCircuit {
+    
+    static final long ADMITTED = 0L;
+    static final long ADMITTED_PROBE = -1L;
+    
+    enum State { CLOSED, OPEN, HALF_OPEN }
+    
+    private final WebhookEndpointGuard.Settings settings;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition capacity = lock.newCondition();
+    
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openUntil;
+    private boolean probing;
+    private double limit;
+    private int inFlight;
+    
+    AdaptiveCircuit(WebhookEndpointGuard.Settings settings) {
+        this.settings = settings;
+        this.limit = settings.initialLimit();
+    }
+    
+    // ADMITTED or ADMITTED_PROBE when a permit was taken, otherwise the epoch millis after which to try again
+    long acquire(long maxWaitMillis) throws InterruptedException {
+        lock.lock();
+        try {
+            long now = System.currentTimeMillis();
+            if (state == State.OPEN) {
+                if (now < openUntil) {
+                    return openUntil;
+                }
+                state = State.HALF_OPEN;
+            }
+            // A single probe decides whether a recovering endpoint closes or reopens
+            if (state == State.HALF_OPEN) {
+                if (probing) {
+                    return now + settings.throttleDelayMillis();
+                }
+                probing = true;
+                inFlight++;
+                return ADMITTED_PROBE;
+            }
+            
+            long remaining = TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+            while (inFlight >= (int) limit) {
+                if (remaining <= 0) {
+                    return System.currentTimeMillis() + settings.throttleDelayMillis();
+                }
+                remaining = capacity.awaitNanos(remaining);
+                if (state != State.CLOSED) {
+                    return state == State.OPEN ? openUntil : System.currentTimeMillis() + settings.throttleDelayMillis();
+                }
+            }
+            inFlight++;
+            return ADMITTED;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    // Errors halve the limit, slow responses shrink it gently, fast successes grow it by about one per window.
+    // While half-open only the probe's outcome moves the state; calls admitted before the circuit opened do not.
+    void release(boolean probe, boolean failed, long latencyMillis) {
+        lock.lock();
+        try {
+            inFlight--;
+            if (probe) {
+                probing = false;
+            }
+            boolean halfOpen = state == State.HALF_OPEN;
+            if (failed) {
+                consecutiveFailures++;
+                limit = Math.max(settings.minLimit(), limit * 0.5);
+                if (halfOpen ? probe : consecutiveFailures >= settings.failureThreshold()) {
+                    state = State.OPEN;
+                    openUntil = System.currentTimeMillis() + settings.openDurationMillis();
+                }
+            } else {
+                consecutiveFailures = 0;
+                if (halfOpen && probe) {
+                    state = State.CLOSED;
+                }
+                if (latencyMillis > settings.latencyThresholdMillis()) {
+                    limit = Math.max(settings.minLimit(), limit * 0.9);
+                } else {
+                    limit = Math.min(settings.maxLimit(), limit + 1.0 / limit);
+                }
+            }
+            capacity.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    State state() {
+        lock.lock();
+        try {
+            return state == State.OPEN && System.currentTimeMillis() >= openUntil ? State.HALF_OPEN : state;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    int limit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    int inFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -1,11 +1,11 @@
 package com.enterprise.notification.service.dispatcher;
 
-import com.enterprise.notification.domain.entity.DeliveryLog;
 import com.enterprise.notification.domain.entity.Notification;
 import com.enterprise.notification.domain.enums.NotificationStatus;
 import com.enterprise.notification.domain.enums.NotificationType;
-import com.enterprise.notification.repository.DeliveryLogRepository;
-import com.enterprise.notification.repository.NotificationRepository;
+import com.enterprise.notification.service.DeliveryLogRecorder;
+import com.enterprise.notification.service.NotificationStatusWriter;
+import com.enterprise.notification.service.RetryPolicy;
 import com.enterprise.notification.service.TemplateService;
 import jakarta.mail.internet.MimeMessage;
 import lombok.RequiredArgsConstructor;
@@ -23,9 +23,11 @@ import java.time.LocalDateTime;
 public class EmailDispatcher implements NotificationDispatcher {
     
     private final JavaMailSender mailSender;
+    private final SmtpTransportPool smtpTransportPool;
     private final TemplateService templateService;
-    private final NotificationRepository notificationRepository;
-    private final DeliveryLogRepository deliveryLogRepository;
+    private final NotificationStatusWriter statusWriter;
+    private final DeliveryLogRecorder deliveryLogRecorder;
+    private final RetryPolicy retryPolicy;
     
     @Value("${notification.providers.email.from}")
     private String fromEmail;
@@ -50,13 +52,14 @@ public class EmailDispatcher implements NotificationDispatcher {
             helper.setSubject(subject);
             helper.setText(body, true);
             
-            mailSender.send(message);
+            // Queued onto a pooled connection and sent alongside other emails dispatched at the same time
+            smtpTransportPool.send(message).join();
             
             notification.setStatus(NotificationStatus.SENT);
             notification.setSentAt(LocalDateTime.now());
-            notificationRepository.save(notification);
+            statusWriter.write(notification);
             
-            logDelivery(notification, "Email sent successfully", 200);
+            deliveryLogRecorder.record(notification, "Email sent successfully", 200);
             
             log.info("Email sent successfully to {}", to);
         } catch (Exception e) {
@@ -73,20 +76,9 @@ public class EmailDispatcher implements NotificationDispatcher {
     private void handleFailure(Notification notification, Exception e) {
         notification.setStatus(NotificationStatus.FAILED);
         notification.setRetries(notification.getRetries() + 1);
-        notificationRepository.save(notification);
+        notification.setNextAttemptAt(retryPolicy.nextAttemptAt(notification.getRetries()));
+        statusWriter.write(notification);
         
-        logDelivery(notification, e.getMessage(), 500);
-    }
-    
-    private void logDelivery(Notification notification, String response, int statusCode) {
-        DeliveryLog log = DeliveryLog.builder()
-            .notificationId(notification.getId())
-            .requestPayload(notification.getPayload().toString())
-            .responsePayload(response)
-            .statusCode(statusCode)
-            .attempt(notification.getRetries() + 1)
-            .build();
-        
-        deliveryLogRepository.save(log);
+        deliveryLogRecorder.record(notification, e.getMessage(), 500);
     }
 }
@@ -0,0 +1,165 @@
+package com.enterprise.notification.service.dispatcher;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+
+// FCM HTTP v1 sends: one request per device token, multiplexed over shared HTTP/2 connections with a bounded
+// number in flight. Every outcome, including transport errors, comes back as a PushResult for that token.
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class FcmClient {
+    
+    private final FcmAccessTokenProvider tokenProvider;
+    private final MeterRegistry meterRegistry;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    
+    // Defaults to the project of the service account
+    @Value("${notification.providers.push.project-id:}")
+    private String projectId;
+    
+    @Value("${notification.providers.push.endpoint:https://fcm.googleapis.com}")
+    private String endpoint;
+    
+    @Value("${notification.providers.push.max-concurrency:200}")
+    private int maxConcurrency;
+    
+    @Value("${notification.providers.push.timeout:10000}")
+    private long timeoutMillis;
+    
+    private HttpClient httpClient;
+    private Semaphore permits;
+    private URI sendUri;
+    private Timer requests;
+    
+    @PostConstruct
+    public void start() {
+        httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_2)
+            .connectTimeout(Duration.ofMillis(timeoutMillis))
+            .build();
+        permits = new Semaphore(maxConcurrency);
+        requests = Timer.builder("notification.push.request")
+            .register(meterRegistry);
+        if (tokenProvider.isConfigured()) {
+            String project = projectId.isEmpty() ? tokenProvider.projectId() : projectId;
+            sendUri = URI.create(endpoint + "/v1/projects/" + project + "/messages:send");
+        }
+    }
+    
+    @PreDestroy
+    public void stop() {
+        httpClient.close();
+    }
+    
+    // Blocks while maxConcurrency requests are in flight; callers run on virtual threads
+    public CompletableFuture<PushResult> send(String deviceToken, String title, String body) {
+        if (sendUri == null) {
+            // Simulated FCM push (configure service-account credentials to send for real)
+            log.info("Sending push notification with title: {}", title);
+            return CompletableFuture.completedFuture(PushResult.sent("simulated"));
+        }
+        
+        String accessToken;
+        HttpRequest request;
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return CompletableFuture.completedFuture(PushResult.failed("Interrupted"));
+        }
+        try {
+            accessToken = tokenProvider.accessToken();
+            Map<String, Object> message = Map.of(
+                "token", deviceToken,
+                "notification", Map.of("title", title, "body", body)
+            );
+            request = HttpRequest.newBuilder(sendUri)
+                .timeout(Duration.ofMillis(timeoutMillis))
+                .header("Content-Type", "application/json")
+                .header("Authorization", "Bearer " + accessToken)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(Map.of("message", message))))
+                .build();
+        } catch (InterruptedException e) {
+            permits.release();
+            Thread.currentThread().interrupt();
+            return CompletableFuture.completedFuture(PushResult.failed("Interrupted"));
+        } catch (Exception e) {
+            permits.release();
+            log.error("Failed to prepare push request", e);
+            return CompletableFuture.completedFuture(PushResult.failed(e.getClass().getSimpleName()));
+        }
+        
+        Timer.Sample sample = Timer.start();
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+            .handle((response, e) -> {
+                if (e != null) {
+                    log.warn("Push request failed: {}", e.getMessage());
+                    return PushResult.failed("Unavailable");
+                }
+                if (response.statusCode() == 401) {
+                    tokenProvider.invalidate(accessToken);
+                }
+                return result(response);
+            })
+            .whenComplete((result, e) -> {
+                sample.stop(requests);
+                permits.release();
+            });
+    }
+    
+    private PushResult result(HttpResponse<String> response) {
+        try {
+            JsonNode json = objectMapper.readTree(response.body());
+            if (response.statusCode() == 200) {
+                return PushResult.sent(json.path("name").asText());
+            }
+            // The FCM-specific code lives in the error details; fall back to the generic RPC status
+            JsonNode error = json.path("error");
+            for (JsonNode detail : error.path("details")) {
+                if (detail.hasNonNull("errorCode")) {
+                    return PushResult.failed(detail.get("errorCode").asText());
+                }
+            }
+            if (error.hasNonNull("status")) {
+                return PushResult.failed(error.get("status").asText());
+            }
+        } catch (Exception e) {
+            log.debug("Unparseable push response with status {}", response.statusCode(), e);
+        }
+        return PushResult.failed("HTTP " + response.statusCode());
+    }
+    
+    public record PushResult(boolean success, String messageId, String error) {
+        
+        static PushResult sent(String messageId) {
+            return new PushResult(true, messageId, null);
+        }
+        
+        static PushResult failed(String error) {
+            return new PushResult(false, null, error);
+        }
+        
+        // Permanent per-token errors; the token will never accept a push from this project again
+        public boolean isTokenInvalid() {
+            return "UNREGISTERED".equals(error) || "SENDER_ID_MISMATCH".equals(error);
+        }
+    }
+}
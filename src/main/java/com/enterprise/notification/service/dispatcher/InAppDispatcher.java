@@ -1,11 +1,11 @@
 package com.enterprise.notification.service.dispatcher;
 
-import com.enterprise.notification.domain.entity.DeliveryLog;
 import com.enterprise.notification.domain.entity.Notification;
 import com.enterprise.notification.domain.enums.NotificationStatus;
 import com.enterprise.notification.domain.enums.NotificationType;
-import com.enterprise.notification.repository.DeliveryLogRepository;
-import com.enterprise.notification.repository.NotificationRepository;
+import com.enterprise.notification.service.DeliveryLogRecorder;
+import com.enterprise.notification.service.NotificationStatusWriter;
+import com.enterprise.notification.service.RetryPolicy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
@@ -17,8 +17,9 @@ import java.time.LocalDateTime;
 @Slf4j
 public class InAppDispatcher implements NotificationDispatcher {
     
-    private final NotificationRepository notificationRepository;
-    private final DeliveryLogRepository deliveryLogRepository;
+    private final NotificationStatusWriter statusWriter;
+    private final DeliveryLogRecorder deliveryLogRecorder;
+    private final RetryPolicy retryPolicy;
     
     @Override
     public void dispatch(Notification notification) {
@@ -26,9 +27,9 @@ public class InAppDispatcher implements NotificationDispatcher {
             // In-app notifications are stored in DB and retrieved via API
             notification.setStatus(NotificationStatus.SENT);
             notification.setSentAt(LocalDateTime.now());
-            notificationRepository.save(notification);
+            statusWriter.write(notification);
             
-            logDelivery(notification, "In-app notification stored successfully", 200);
+            deliveryLogRecorder.record(notification, "In-app notification stored successfully", 200);
             
             log.info("In-app notification stored for user {}", notification.getUserId());
         } catch (Exception e) {
@@ -45,20 +46,9 @@ public class InAppDispatcher implements NotificationDispatcher {
     private void handleFailure(Notification notification, Exception e) {
         notification.setStatus(NotificationStatus.FAILED);
         notification.setRetries(notification.getRetries() + 1);
-        notificationRepository.save(notification);
+        notification.setNextAttemptAt(retryPolicy.nextAttemptAt(notification.getRetries()));
+        statusWriter.write(notification);
         
-        logDelivery(notification, e.getMessage(), 500);
-    }
-    
-    private void logDelivery(Notification notification, String response, int statusCode) {
-        DeliveryLog log = DeliveryLog.builder()
-            .notificationId(notification.getId())
-            .requestPayload(notification.getPayload().toString())
-            .responsePayload(response)
-            .statusCode(statusCode)
-            .attempt(notification.getRetries() + 1)
-            .build();
-        
-        deliveryLogRepository.save(log);
+        deliveryLogRecorder.record(notification, e.getMessage(), 500);
     }
 }
@@ -1,30 +1,37 @@
 package com.enterprise.notification.service.dispatcher;
 
-import com.enterprise.notification.domain.entity.DeliveryLog;
 import com.enterprise.notification.domain.entity.Notification;
 import com.enterprise.notification.domain.enums.NotificationStatus;
 import com.enterprise.notification.domain.enums.NotificationType;
-import com.enterprise.notification.repository.DeliveryLogRepository;
-import com.enterprise.notification.repository.NotificationRepository;
+import com.enterprise.notification.service.DeliveryLogRecorder;
+import com.enterprise.notification.service.NotificationStatusWriter;
+import com.enterprise.notification.service.DeviceTokenService;
+import com.enterprise.notification.service.RetryPolicy;
+import com.enterprise.notification.repository.PushDeliveryRepository;
+import com.enterprise.notification.service.dispatcher.FcmClient.PushResult;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class PushDispatcher implements NotificationDispatcher {
     
-    private final NotificationRepository notificationRepository;
-    private final DeliveryLogRepository deliveryLogRepository;
+    private final NotificationStatusWriter statusWriter;
+    private final DeliveryLogRecorder deliveryLogRecorder;
+    private final RetryPolicy retryPolicy;
+    private final FcmClient fcmClient;
+    private final DeviceTokenService deviceTokenService;
+    private final PushDeliveryRepository pushDeliveryRepository;
     
-    @Value("${notification.providers.push.server-key:}")
-    private String serverKey;
-    
-    @SuppressWarnings("unused")
     @Override
     public void dispatch(Notification notification) {
         try {
@@ -32,14 +39,74 @@ public class PushDispatcher implements NotificationDispatcher {
             String title = (String) notification.getPayload().get("title");
             String body = (String) notification.getPayload().get("body");
             
-            // Simulated FCM push (integrate with Firebase SDK in production)
-            log.info("Sending push notification to device {} with title: {}", deviceToken, title);
+            // An explicit deviceToken in the payload wins; otherwise every registered device of the user is targeted
+            List<String> targets;
+            if (deviceToken != null && !deviceToken.isBlank()) {
+                targets = deviceTokenService.isKnownInvalid(deviceToken) ? List.of() : List.of(deviceToken);
+            } else {
+                targets = deviceTokenService.getDeliverableTokens(notification.getUserId());
+            }
+            if (targets.isEmpty()) {
+                discard(notification, "No deliverable device tokens");
+                return;
+            }
+            
+            // Devices that accepted an earlier attempt are not pushed again; first attempts skip the lookup
+            int deliveredBefore = 0;
+            List<String> pending = targets;
+            if (notification.getStatus() == NotificationStatus.RETRYING) {
+                Set<String> delivered = new HashSet<>(pushDeliveryRepository.findDeliveredTokens(notification.getId()));
+                pending = targets.stream()
+                    .filter(token -> !delivered.contains(token))
+                    .toList();
+                deliveredBefore = targets.size() - pending.size();
+            }
+            
+            // One request per device, all in flight at once
+            List<CompletableFuture<PushResult>> sends = pending.stream()
+                .map(token -> fcmClient.send(token, title, body))
+                .toList();
+            
+            // Recorded before the notification status so a crash in between can only cause a redundant resend
+            LocalDateTime attemptAt = LocalDateTime.now();
+            int delivered = 0;
+            int failed = 0;
+            String error = null;
+            List<String> unregistered = new ArrayList<>();
+            for (int i = 0; i < pending.size(); i++) {
+                PushResult result = sends.get(i).join();
+                pushDeliveryRepository.upsert(
+                    notification.getId(),
+                    pending.get(i),
+                    (result.success() ? NotificationStatus.SENT : NotificationStatus.FAILED).name(),
+                    result.error(),
+                    attemptAt
+                );
+                if (result.success()) {
+                    delivered++;
+                } else if (result.isTokenInvalid()) {
+                    unregistered.add(pending.get(i));
+                } else {
+                    failed++;
+                    error = result.error();
+                }
+            }
+            deviceTokenService.markInvalid(unregistered);
+            
+            // Any other error (Unavailable, Internal, quota) is retried for the devices it hit
+            if (failed > 0) {
+                throw new IllegalStateException("Push failed on " + failed + " of " + pending.size() + " devices: " + error);
+            }
+            if (delivered + deliveredBefore == 0) {
+                discard(notification, "All device tokens are unregistered");
+                return;
+            }
             
             notification.setStatus(NotificationStatus.SENT);
             notification.setSentAt(LocalDateTime.now());
-            notificationRepository.save(notification);
+            statusWriter.write(notification);
             
-            logDelivery(notification, "Push notification sent successfully", 200);
+            deliveryLogRecorder.record(notification, "Push notification sent successfully to " + delivered + " devices", 200);
             
         } catch (Exception e) {
             log.error("Failed to send push notification", e);
@@ -52,23 +119,22 @@ public class PushDispatcher implements NotificationDispatcher {
         return notification.getType() == NotificationType.PUSH;
     }
     
-    private void handleFailure(Notification notification, Exception e) {
+    // Nothing to retry against: the notification fails without consuming a retry or re-entering the retry queue
+    private void discard(Notification notification, String reason) {
+        log.warn("Push notification {} for user {} not sent: {}", notification.getId(), notification.getUserId(), reason);
         notification.setStatus(NotificationStatus.FAILED);
-        notification.setRetries(notification.getRetries() + 1);
-        notificationRepository.save(notification);
+        notification.setNextAttemptAt(null);
+        statusWriter.write(notification);
         
-        logDelivery(notification, e.getMessage(), 500);
+        deliveryLogRecorder.record(notification, reason, 410);
     }
     
-    private void logDelivery(Notification notification, String response, int statusCode) {
-        DeliveryLog log = DeliveryLog.builder()
-            .notificationId(notification.getId())
-            .requestPayload(notification.getPayload().toString())
-            .responsePayload(response)
-            .statusCode(statusCode)
-            .attempt(notification.getRetries() + 1)
-            .build();
+    private void handleFailure(Notification notification, Exception e) {
+        notification.setStatus(NotificationStatus.FAILED);
+        notification.setRetries(notification.getRetries() + 1);
+        notification.setNextAttemptAt(retryPolicy.nextAttemptAt(notification.getRetries()));
+        statusWriter.write(notification);
         
-        deliveryLogRepository.save(log);
+        deliveryLogRecorder.record(notification, e.getMessage(), 500);
     }
 }
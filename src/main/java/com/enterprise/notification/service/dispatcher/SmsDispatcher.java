@@ -1,11 +1,11 @@
 package com.enterprise.notification.service.dispatcher;
 
-import com.enterprise.notification.domain.entity.DeliveryLog;
 import com.enterprise.notification.domain.entity.Notification;
 import com.enterprise.notification.domain.enums.NotificationStatus;
 import com.enterprise.notification.domain.enums.NotificationType;
-import com.enterprise.notification.repository.DeliveryLogRepository;
-import com.enterprise.notification.repository.NotificationRepository;
+import com.enterprise.notification.service.DeliveryLogRecorder;
+import com.enterprise.notification.service.NotificationStatusWriter;
+import com.enterprise.notification.service.RetryPolicy;
 import com.enterprise.notification.service.TemplateService;
 import com.twilio.Twilio;
 import com.twilio.rest.api.v2010.account.Message;
@@ -17,6 +17,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
+import java.util.concurrent.Semaphore;
 
 @Component
 @RequiredArgsConstructor
@@ -24,8 +25,10 @@ import java.time.LocalDateTime;
 public class SmsDispatcher implements NotificationDispatcher {
 
     private final TemplateService templateService;
-    private final NotificationRepository notificationRepository;
-    private final DeliveryLogRepository deliveryLogRepository;
+    private final NotificationStatusWriter statusWriter;
+    private final DeliveryLogRecorder deliveryLogRecorder;
+    private final RetryPolicy retryPolicy;
+    private final SmsRateLimiter smsRateLimiter;
 
     @Value("${notification.providers.sms.account-sid:}")
     private String accountSid;
@@ -33,11 +36,15 @@ public class SmsDispatcher implements NotificationDispatcher {
     @Value("${notification.providers.sms.auth-token:}")
     private String authToken;
 
-    @Value("${notification.providers.sms.from-number:}")
-    private String fromNumber;
+    @Value("${notification.providers.sms.max-in-flight:100}")
+    private int maxInFlight;
+
+    private Semaphore providerPermits;
 
     @PostConstruct
     public void init() {
+        providerPermits = new Semaphore(maxInFlight);
+
         // Initialize Twilio if credentials are provided
         if (!accountSid.isEmpty() && !authToken.isEmpty()) {
             Twilio.init(accountSid, authToken);
@@ -57,24 +64,40 @@ public class SmsDispatcher implements NotificationDispatcher {
                 message = (String) notification.getPayload().get("message");
             }
 
-            if (accountSid.isEmpty() || authToken.isEmpty() || fromNumber.isEmpty()) {
+            if (accountSid.isEmpty() || authToken.isEmpty() || !smsRateLimiter.hasSenders()) {
                 throw new IllegalStateException("Twilio credentials not configured");
             }
 
-            Message twilioMessage = Message.creator(
-                new PhoneNumber(to),
-                new PhoneNumber(fromNumber),
-                message
-            ).create();
+            // Waits briefly for a sender token, then for a provider slot; runs on a virtual thread, so neither wait holds
+            // a carrier. A longer backlog parks the notification rather than sleeping inside the consumer's batch.
+            SmsRateLimiter.Reservation reservation = smsRateLimiter.acquire(notification.getPriority());
+            if (!reservation.acquired()) {
+                park(notification, reservation.parkedUntil());
+                return;
+            }
+            Message twilioMessage;
+            providerPermits.acquire();
+            try {
+                twilioMessage = Message.creator(
+                    new PhoneNumber(to),
+                    new PhoneNumber(reservation.fromNumber()),
+                    message
+                ).create();
+            } finally {
+                providerPermits.release();
+            }
 
             log.info("SMS sent successfully to {} with SID: {}", to, twilioMessage.getSid());
 
             notification.setStatus(NotificationStatus.SENT);
             notification.setSentAt(LocalDateTime.now());
-            notificationRepository.save(notification);
+            statusWriter.write(notification);
 
-            logDelivery(notification, "SMS sent successfully with SID: " + twilioMessage.getSid(), 200);
+            deliveryLogRecorder.record(notification, "SMS sent successfully with SID: " + twilioMessage.getSid(), 200);
 
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            handleFailure(notification, e);
         } catch (Exception e) {
             log.error("Failed to send SMS", e);
             handleFailure(notification, e);
@@ -86,23 +109,28 @@ public class SmsDispatcher implements NotificationDispatcher {
         return notification.getType() == NotificationType.SMS;
     }
     
+    // Nothing was sent, so no retry is consumed and the row is THROTTLED rather than FAILED; a notification parked
+    // for too long fails instead
+    private void park(Notification notification, LocalDateTime parkedUntil) {
+        if (retryPolicy.parkExpired(notification)) {
+            log.warn("SMS notification {} parked past the maximum park age; giving up", notification.getId());
+            notification.setStatus(NotificationStatus.FAILED);
+            notification.setNextAttemptAt(null);
+            statusWriter.write(notification);
+            deliveryLogRecorder.record(notification, "SMS rate limit backlog exceeded the maximum park age", 429);
+            return;
+        }
+        notification.setStatus(NotificationStatus.THROTTLED);
+        notification.setNextAttemptAt(parkedUntil);
+        statusWriter.write(notification);
+    }
+    
     private void handleFailure(Notification notification, Exception e) {
         notification.setStatus(NotificationStatus.FAILED);
         notification.setRetries(notification.getRetries() + 1);
-        notificationRepository.save(notification);
-        
-        logDelivery(notification, e.getMessage(), 500);
-    }
-    
-    private void logDelivery(Notification notification, String response, int statusCode) {
-        DeliveryLog log = DeliveryLog.builder()
-            .notificationId(notification.getId())
-            .requestPayload(notification.getPayload().toString())
-            .responsePayload(response)
-            .statusCode(statusCode)
-            .attempt(notification.getRetries() + 1)
-            .build();
+        notification.setNextAttemptAt(retryPolicy.nextAttemptAt(notification.getRetries()));
+        statusWriter.write(notification);
         
-        deliveryLogRepository.save(log);
+        deliveryLogRecorder.record(notification, e.getMessage(), 500);
     }
 }
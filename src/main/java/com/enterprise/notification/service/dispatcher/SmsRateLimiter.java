@@ -0,0 +1,146 @@
+package com.enterprise.notification.service.dispatcher;
+
+import com.enterprise.notification.domain.enums.NotificationPriority;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Token bucket per sender number; callers wait briefly for a token instead of being throttled by the provider.
+// Waits are bounded so a dispatching batch never sleeps long enough to stall its consumer's poll loop.
+// BULK never waits: it only takes a token that is free right now, so a campaign cannot hold reservations that HIGH and
+// NORMAL sends would then queue behind, and it parks on its own horizon so parked OTPs do not line up behind it.
+@Component
+public class SmsRateLimiter {
+    
+    private final List<TokenBucket> buckets;
+    private final long maxWaitNanos;
+    private final long parkSpacingNanos;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final Timer waits;
+    private final Map<NotificationPriority, Counter> parked = new EnumMap<>(NotificationPriority.class);
+    private final Map<NotificationPriority, Long> parkHorizons = new EnumMap<>(NotificationPriority.class);
+    
+    public SmsRateLimiter(
+        @Value("${notification.providers.sms.from-numbers:${notification.providers.sms.from-number:}}") String[] fromNumbers,
+        @Value("${notification.providers.sms.rate-per-second:1}") double ratePerSecond,
+        @Value("${notification.providers.sms.burst:1}") int burst,
+        @Value("${notification.providers.sms.max-wait:250}") long maxWaitMillis,
+        MeterRegistry meterRegistry
+    ) {
+        this.buckets = Arrays.stream(fromNumbers)
+            .map(String::trim)
+            .filter(number -> !number.isEmpty())
+            .map(number -> new TokenBucket(number, ratePerSecond, burst))
+            .toList();
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+        this.parkSpacingNanos = (long) (TimeUnit.SECONDS.toNanos(1) / ratePerSecond) / Math.max(1, buckets.size());
+        this.waits = Timer.builder("notification.sms.limiter.wait")
+            .register(meterRegistry);
+        Gauge.builder("notification.sms.limiter.waiting", waiting, AtomicInteger::get)
+            .register(meterRegistry);
+        long now = System.nanoTime();
+        for (NotificationPriority priority : NotificationPriority.values()) {
+            parked.put(priority, Counter.builder("notification.sms.limiter.parked")
+                .description("SMS sends deferred because no sender token was due within the lane's maximum wait")
+                .tag("lane", priority.name().toLowerCase())
+                .register(meterRegistry));
+            parkHorizons.put(priority, now);
+        }
+    }
+    
+    public boolean hasSenders() {
+        return !buckets.isEmpty();
+    }
+    
+    // Reserves a token on whichever sender frees up first and sleeps until it is due. When that is further out than
+    // the lane's maximum wait nothing is reserved; the caller gets a slot to come back at, spaced so parked sends of
+    // the lane do not all return at once.
+    public Reservation acquire(NotificationPriority priority) throws InterruptedException {
+        if (buckets.isEmpty()) {
+            throw new IllegalStateException("No SMS sender numbers configured");
+        }
+        
+        TokenBucket sender;
+        long waitNanos;
+        lock.lock();
+        try {
+            long now = System.nanoTime();
+            sender = buckets.get(0);
+            for (TokenBucket bucket : buckets) {
+                if (bucket.availableAt(now) < sender.availableAt(now)) {
+                    sender = bucket;
+                }
+            }
+            long laneMaxWait = priority == NotificationPriority.BULK ? 0 : maxWaitNanos;
+            if (sender.availableAt(now) - now > laneMaxWait) {
+                long slot = Math.max(parkHorizons.get(priority), sender.availableAt(now));
+                parkHorizons.put(priority, slot + parkSpacingNanos);
+                parked.get(priority).increment();
+                return Reservation.parked(LocalDateTime.now().plusNanos(slot - now));
+            }
+            waitNanos = sender.reserve(now);
+        } finally {
+            lock.unlock();
+        }
+        
+        waits.record(waitNanos, TimeUnit.NANOSECONDS);
+        if (waitNanos > 0) {
+            waiting.incrementAndGet();
+            try {
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            } finally {
+                waiting.decrementAndGet();
+            }
+        }
+        return new Reservation(sender.fromNumber, null);
+    }
+    
+    public record Reservation(String fromNumber, LocalDateTime parkedUntil) {
+        
+        static Reservation parked(LocalDateTime parkedUntil) {
+            return new Reservation(null, parkedUntil);
+        }
+        
+        public boolean acquired() {
+            return fromNumber != null;
+        }
+    }
+    
+    // GCRA form of a token bucket: one theoretical arrival time instead of a refilling counter
+    private static final class TokenBucket {
+        private final String fromNumber;
+        private final long intervalNanos;
+        private final long burstToleranceNanos;
+        private long theoreticalArrival;
+        
+        private TokenBucket(String fromNumber, double ratePerSecond, int burst) {
+            this.fromNumber = fromNumber;
+            this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / ratePerSecond);
+            this.burstToleranceNanos = intervalNanos * Math.max(0, burst - 1);
+            this.theoreticalArrival = System.nanoTime();
+        }
+        
+        private long availableAt(long now) {
+            return Math.max(now, theoreticalArrival - burstToleranceNanos);
+        }
+        
+        private long reserve(long now) {
+            long start = availableAt(now);
+            theoreticalArrival = Math.max(theoreticalArrival, start) + intervalNanos;
+            return start - now;
+        }
+    }
+}
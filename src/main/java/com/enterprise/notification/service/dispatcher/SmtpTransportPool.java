@@ -0,0 +1,190 @@
+package com.enterprise.notification.service.dispatcher;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+// Long-lived authenticated SMTP connections, each owned by one worker that sends queued messages in micro-batches
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SmtpTransportPool {
+    
+    private final JavaMailSenderImpl mailSender;
+    private final MeterRegistry meterRegistry;
+    
+    @Value("${notification.providers.email.pool.connections:4}")
+    private int connections;
+    
+    @Value("${notification.providers.email.pool.batch-size:50}")
+    private int batchSize;
+    
+    @Value("${notification.providers.email.pool.queue-capacity:10000}")
+    private int queueCapacity;
+    
+    // Closed after this long without traffic so servers do not drop them underneath us
+    @Value("${notification.providers.email.pool.idle-timeout:30000}")
+    private long idleTimeoutMillis;
+    
+    private BlockingQueue<PendingMessage> queue;
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile boolean running = true;
+    
+    @PostConstruct
+    public void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        for (int i = 0; i < connections; i++) {
+            Connection connection = new Connection(i);
+            Thread worker = new Thread(connection::run, "smtp-" + i);
+            worker.setDaemon(true);
+            worker.start();
+            workers.add(worker);
+        }
+    }
+    
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        for (Thread worker : workers) {
+            worker.interrupt();
+        }
+        for (Thread worker : workers) {
+            worker.join(TimeUnit.SECONDS.toMillis(5));
+        }
+        PendingMessage pending;
+        while ((pending = queue.poll()) != null) {
+            pending.result().completeExceptionally(new IllegalStateException("SMTP pool shut down"));
+        }
+    }
+    
+    // Blocks while the queue is full; callers run on virtual threads, so this is backpressure rather than a stall
+    public CompletableFuture<Void> send(MimeMessage message) throws InterruptedException {
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        queue.put(new PendingMessage(message, result));
+        return result;
+    }
+    
+    private record PendingMessage(MimeMessage message, CompletableFuture<Void> result) {
+    }
+    
+    private class Connection {
+        
+        private final Counter sent;
+        private final Counter failed;
+        private final Counter reconnects;
+        private final Timer batches;
+        private Transport transport;
+        
+        Connection(int index) {
+            String tag = String.valueOf(index);
+            sent = Counter.builder("notification.email.sent")
+                .tag("connection", tag)
+                .register(meterRegistry);
+            failed = Counter.builder("notification.email.failed")
+                .tag("connection", tag)
+                .register(meterRegistry);
+            reconnects = Counter.builder("notification.email.reconnects")
+                .tag("connection", tag)
+                .register(meterRegistry);
+            batches = Timer.builder("notification.email.batch")
+                .tag("connection", tag)
+                .register(meterRegistry);
+        }
+        
+        void run() {
+            List<PendingMessage> batch = new ArrayList<>(batchSize);
+            while (running) {
+                try {
+                    PendingMessage first = queue.poll(idleTimeoutMillis, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        close();
+                        continue;
+                    }
+                    batch.add(first);
+                    queue.drainTo(batch, batchSize - 1);
+                    batches.record(() -> sendBatch(batch));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                } catch (Exception e) {
+                    log.error("SMTP worker failed", e);
+                } finally {
+                    // Completed futures ignore this; it only stops callers hanging if the worker dies mid-batch
+                    batch.forEach(pending -> pending.result().completeExceptionally(
+                        new IllegalStateException("SMTP worker stopped before sending")));
+                    batch.clear();
+                }
+            }
+            close();
+        }
+        
+        private void sendBatch(List<PendingMessage> batch) {
+            for (PendingMessage pending : batch) {
+                try {
+                    sendOne(pending.message());
+                    sent.increment();
+                    pending.result().complete(null);
+                } catch (Exception e) {
+                    failed.increment();
+                    pending.result().completeExceptionally(e);
+                }
+            }
+        }
+        
+        // A rejected recipient fails only its own message; anything else is treated as a dead connection and retried once
+        private void sendOne(MimeMessage message) throws MessagingException {
+            message.saveChanges();
+            try {
+                connected().sendMessage(message, message.getAllRecipients());
+            } catch (SendFailedException e) {
+                throw e;
+            } catch (MessagingException e) {
+                log.warn("SMTP connection failed, reconnecting: {}", e.getMessage());
+                close();
+                reconnects.increment();
+                connected().sendMessage(message, message.getAllRecipients());
+            }
+        }
+        
+        private Transport connected() throws MessagingException {
+            if (transport == null || !transport.isConnected()) {
+                close();
+                // Same fallback as JavaMailSenderImpl when no protocol is configured
+                String protocol = mailSender.getProtocol() != null ? mailSender.getProtocol() : "smtp";
+                transport = mailSender.getSession().getTransport(protocol);
+                transport.connect(mailSender.getHost(), mailSender.getPort(), mailSender.getUsername(), mailSender.getPassword());
+            }
+            return transport;
+        }
+        
+        private void close() {
+            if (transport == null) {
+                return;
+            }
+            try {
+                transport.close();
+            } catch (MessagingException e) {
+                log.debug("Failed to close SMTP connection", e);
+            }
+            transport = null;
+        }
+    }
+}
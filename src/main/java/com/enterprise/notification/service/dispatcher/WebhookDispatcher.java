@@ -1,114 +1,232 @@
 package com.enterprise.notification.service.dispatcher;
 
-import com.enterprise.notification.domain.entity.DeliveryLog;
 import com.enterprise.notification.domain.entity.Notification;
-import com.enterprise.notification.domain.entity.WebhookEndpoint;
 import com.enterprise.notification.domain.enums.NotificationStatus;
 import com.enterprise.notification.domain.enums.NotificationType;
-import com.enterprise.notification.repository.DeliveryLogRepository;
-import com.enterprise.notification.repository.NotificationRepository;
-import com.enterprise.notification.repository.WebhookEndpointRepository;
+import com.enterprise.notification.repository.WebhookDeliveryRepository;
+import com.enterprise.notification.service.DeliveryLogRecorder;
+import com.enterprise.notification.service.NotificationStatusWriter;
+import com.enterprise.notification.service.RetryPolicy;
+import com.enterprise.notification.service.dispatcher.WebhookEndpointGuard.Admission;
+import com.enterprise.notification.service.dispatcher.WebhookEndpointRegistry.ActiveEndpoint;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.http.*;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
-import org.springframework.web.client.RestTemplate;
 
-import javax.crypto.Mac;
-import javax.crypto.spec.SecretKeySpec;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
 import java.time.LocalDateTime;
-import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
 
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class WebhookDispatcher implements NotificationDispatcher {
     
-    private final WebhookEndpointRepository webhookEndpointRepository;
-    private final NotificationRepository notificationRepository;
-    private final DeliveryLogRepository deliveryLogRepository;
-    private final RestTemplate restTemplate = new RestTemplate();
+    private final WebhookEndpointRegistry webhookEndpointRegistry;
+    private final NotificationStatusWriter statusWriter;
+    private final WebhookDeliveryRepository webhookDeliveryRepository;
+    private final DeliveryLogRecorder deliveryLogRecorder;
+    private final RetryPolicy retryPolicy;
+    private final HttpClient webhookHttpClient;
+    private final WebhookSigner webhookSigner;
+    private final WebhookEndpointGuard endpointGuard;
     private final ObjectMapper objectMapper = new ObjectMapper();
     
+    @Value("${notification.providers.webhook.timeout:5000}")
+    private long timeoutMillis;
+    
+    @Value("${notification.providers.webhook.gzip.enabled:false}")
+    private boolean gzipEnabled;
+    
+    @Value("${notification.providers.webhook.gzip.min-bytes:1024}")
+    private int gzipMinBytes;
+    
     @Override
     public void dispatch(Notification notification) {
-        List<WebhookEndpoint> endpoints = webhookEndpointRepository
-            .findByUserIdAndIsActive(notification.getUserId(), true);
+        List<ActiveEndpoint> endpoints = webhookEndpointRegistry.getActiveEndpoints(notification.getUserId());
         
         if (endpoints.isEmpty()) {
             log.warn("No active webhook endpoints for user {}", notification.getUserId());
+            // Terminal: a retried row would otherwise keep its past next_attempt_at and be reclaimed on every poll
             notification.setStatus(NotificationStatus.FAILED);
-            notificationRepository.save(notification);
+            notification.setNextAttemptAt(null);
+            statusWriter.write(notification);
+            deliveryLogRecorder.record(notification, "No active webhook endpoints", 410);
             return;
         }
         
-        for (WebhookEndpoint endpoint : endpoints) {
-            try {
-                String payload = objectMapper.writeValueAsString(notification.getPayload());
-                String signature = generateSignature(payload, endpoint.getSecretKey());
-                
-                HttpHeaders headers = new HttpHeaders();
-                headers.setContentType(MediaType.APPLICATION_JSON);
-                headers.set("X-Webhook-Signature", signature);
-                
-                HttpEntity<String> request = new HttpEntity<>(payload, headers);
-                ResponseEntity<String> response = restTemplate.exchange(
-                    endpoint.getUrl(),
-                    HttpMethod.POST,
-                    request,
-                    String.class
-                );
-                
-                notification.setStatus(NotificationStatus.SENT);
-                notification.setSentAt(LocalDateTime.now());
-                notificationRepository.save(notification);
-                
-                logDelivery(notification, response.getBody(), response.getStatusCode().value());
-                
-                log.info("Webhook sent successfully to {}", endpoint.getUrl());
-            } catch (Exception e) {
-                log.error("Failed to send webhook to {}", endpoint.getUrl(), e);
-                handleFailure(notification, e);
+        // Endpoints that accepted an earlier attempt are not called again; first attempts skip the lookup
+        List<ActiveEndpoint> pending = endpoints;
+        if (notification.getStatus() == NotificationStatus.RETRYING) {
+            Set<Long> delivered = new HashSet<>(webhookDeliveryRepository.findDeliveredEndpointIds(notification.getId()));
+            pending = endpoints.stream()
+                .filter(endpoint -> !delivered.contains(endpoint.id()))
+                .toList();
+        }
+        
+        List<EndpointResult> results = deliver(notification, pending);
+        List<EndpointResult> attempted = results.stream()
+            .filter(result -> !result.isParked())
+            .toList();
+        
+        // Recorded before the notification status so a crash in between can only cause a redundant resend
+        LocalDateTime attemptAt = LocalDateTime.now();
+        attempted.forEach(result -> {
+            webhookDeliveryRepository.upsert(
+                notification.getId(),
+                result.endpoint().id(),
+                (result.isSuccess() ? NotificationStatus.SENT : NotificationStatus.FAILED).name(),
+                result.statusCode(),
+                attemptAt
+            );
+            deliveryLogRecorder.record(notification, result.body(), result.statusCode());
+        });
+        
+        boolean failed = attempted.stream().anyMatch(result -> !result.isSuccess());
+        LocalDateTime parkedUntil = results.stream()
+            .map(EndpointResult::parkedUntil)
+            .filter(Objects::nonNull)
+            .max(Comparator.naturalOrder())
+            .orElse(null);
+        
+        if (!failed && parkedUntil == null) {
+            notification.setStatus(NotificationStatus.SENT);
+            notification.setSentAt(LocalDateTime.now());
+        } else if (!failed && retryPolicy.parkExpired(notification)) {
+            log.warn("Webhook notification {} parked past the maximum park age; giving up", notification.getId());
+            notification.setStatus(NotificationStatus.FAILED);
+            notification.setNextAttemptAt(null);
+            deliveryLogRecorder.record(notification, "Webhook endpoints unavailable past the maximum park age", 503);
+        } else if (!failed) {
+            // Nothing was attempted against the guarded endpoints, so no retry is consumed
+            notification.setStatus(NotificationStatus.THROTTLED);
+            notification.setNextAttemptAt(parkedUntil);
+        } else {
+            notification.setStatus(NotificationStatus.FAILED);
+            notification.setRetries(notification.getRetries() + 1);
+            LocalDateTime nextAttemptAt = retryPolicy.nextAttemptAt(notification.getRetries());
+            if (nextAttemptAt != null && parkedUntil != null && parkedUntil.isAfter(nextAttemptAt)) {
+                nextAttemptAt = parkedUntil;
             }
+            notification.setNextAttemptAt(nextAttemptAt);
         }
+        statusWriter.write(notification);
     }
     
-    @Override
-    public boolean supports(Notification notification) {
-        return notification.getType() == NotificationType.WEBHOOK;
+    private List<EndpointResult> deliver(Notification notification, List<ActiveEndpoint> endpoints) {
+        byte[] payload;
+        byte[] body;
+        try {
+            // Serialized and compressed once; every endpoint signs and sends the same arrays
+            payload = objectMapper.writeValueAsBytes(notification.getPayload());
+            body = gzipEnabled && payload.length >= gzipMinBytes ? gzip(payload) : payload;
+        } catch (IOException e) {
+            log.error("Failed to serialize webhook payload for notification {}", notification.getId(), e);
+            return endpoints.stream()
+                .map(endpoint -> EndpointResult.failed(endpoint, e))
+                .toList();
+        }
+        
+        // All endpoints are called concurrently, so one slow receiver costs its own timeout and nothing more
+        List<CompletableFuture<EndpointResult>> calls = endpoints.stream()
+            .map(endpoint -> send(endpoint, payload, body, body != payload))
+            .toList();
+        return calls.stream()
+            .map(CompletableFuture::join)
+            .toList();
+    }
+    
+    private CompletableFuture<EndpointResult> send(ActiveEndpoint endpoint, byte[] payload, byte[] body, boolean compressed) {
+        Admission admission = endpointGuard.admit(endpoint.url());
+        if (!admission.admitted()) {
+            return CompletableFuture.completedFuture(EndpointResult.parked(endpoint, admission.parkedUntil()));
+        }
+        
+        long started = System.nanoTime();
+        return call(endpoint, payload, body, compressed)
+            .whenComplete((result, e) -> admission.release(
+                result != null ? result.statusCode() : 500,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started)
+            ));
     }
     
-    private String generateSignature(String payload, String secretKey) {
+    private CompletableFuture<EndpointResult> call(ActiveEndpoint endpoint, byte[] payload, byte[] body, boolean compressed) {
+        HttpRequest request;
         try {
-            Mac mac = Mac.getInstance("HmacSHA256");
-            SecretKeySpec secretKeySpec = new SecretKeySpec(secretKey.getBytes(), "HmacSHA256");
-            mac.init(secretKeySpec);
-            byte[] hash = mac.doFinal(payload.getBytes());
-            return Base64.getEncoder().encodeToString(hash);
+            HttpRequest.Builder builder = HttpRequest.newBuilder(endpoint.uri())
+                .timeout(Duration.ofMillis(timeoutMillis))
+                .header("Content-Type", "application/json")
+                .header("X-Webhook-Signature", webhookSigner.sign(endpoint.signingKey(), payload));
+            if (compressed) {
+                builder.header("Content-Encoding", "gzip");
+            }
+            request = builder.POST(HttpRequest.BodyPublishers.ofByteArray(body)).build();
         } catch (Exception e) {
-            throw new RuntimeException("Failed to generate signature", e);
+            log.error("Failed to build webhook request for {}", endpoint.url(), e);
+            return CompletableFuture.completedFuture(EndpointResult.failed(endpoint, e));
         }
+        
+        return webhookHttpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+            .thenApply(response -> {
+                EndpointResult result = new EndpointResult(endpoint, response.statusCode(), response.body(), null);
+                if (result.isSuccess()) {
+                    log.info("Webhook sent successfully to {}", endpoint.url());
+                } else {
+                    log.error("Webhook to {} returned status {}", endpoint.url(), response.statusCode());
+                }
+                return result;
+            })
+            .exceptionally(e -> {
+                log.error("Failed to send webhook to {}", endpoint.url(), e);
+                return EndpointResult.failed(endpoint, e);
+            });
     }
     
-    private void handleFailure(Notification notification, Exception e) {
-        notification.setStatus(NotificationStatus.FAILED);
-        notification.setRetries(notification.getRetries() + 1);
-        notificationRepository.save(notification);
-        
-        logDelivery(notification, e.getMessage(), 500);
+    @Override
+    public boolean supports(Notification notification) {
+        return notification.getType() == NotificationType.WEBHOOK;
+    }
+    
+    private static byte[] gzip(byte[] body) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 2);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        }
+        return out.toByteArray();
     }
     
-    private void logDelivery(Notification notification, String response, int statusCode) {
-        DeliveryLog log = DeliveryLog.builder()
-            .notificationId(notification.getId())
-            .requestPayload(notification.getPayload().toString())
-            .responsePayload(response)
-            .statusCode(statusCode)
-            .attempt(notification.getRetries() + 1)
-            .build();
+    private record EndpointResult(ActiveEndpoint endpoint, int statusCode, String body, LocalDateTime parkedUntil) {
         
-        deliveryLogRepository.save(log);
+        static EndpointResult failed(ActiveEndpoint endpoint, Throwable error) {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            return new EndpointResult(endpoint, 500, cause.getMessage(), null);
+        }
+        
+        static EndpointResult parked(ActiveEndpoint endpoint, LocalDateTime parkedUntil) {
+            return new EndpointResult(endpoint, 0, null, parkedUntil);
+        }
+        
+        boolean isParked() {
+            return parkedUntil != null;
+        }
+        
+        boolean isSuccess() {
+            return statusCode >= 200 && statusCode < 300;
+        }
     }
 }
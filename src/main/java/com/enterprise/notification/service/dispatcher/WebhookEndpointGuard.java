@@ -0,0 +1,130 @@
+package com.enterprise.notification.service.dispatcher;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+// Per-URL circuit breakers and adaptive concurrency limits in front of webhook calls
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class WebhookEndpointGuard {
+    
+    private final MeterRegistry meterRegistry;
+    
+    @Value("${notification.providers.webhook.circuit.failure-threshold:5}")
+    private int failureThreshold;
+    
+    @Value("${notification.providers.webhook.circuit.open-duration:30000}")
+    private long openDurationMillis;
+    
+    @Value("${notification.providers.webhook.limit.initial:20}")
+    private int initialLimit;
+    
+    @Value("${notification.providers.webhook.limit.min:1}")
+    private int minLimit;
+    
+    @Value("${notification.providers.webhook.limit.max:200}")
+    private int maxLimit;
+    
+    @Value("${notification.providers.webhook.limit.latency-threshold:2000}")
+    private long latencyThresholdMillis;
+    
+    @Value("${notification.providers.webhook.limit.max-wait:1000}")
+    private long maxWaitMillis;
+    
+    @Value("${notification.providers.webhook.limit.throttle-delay:5000}")
+    private long throttleDelayMillis;
+    
+    private Settings settings;
+    private Cache<String, AdaptiveCircuit> circuits;
+    private Counter rejected;
+    
+    @PostConstruct
+    public void init() {
+        settings = new Settings(failureThreshold, openDurationMillis, initialLimit, minLimit, maxLimit,
+            latencyThresholdMillis, throttleDelayMillis);
+        // Idle URLs age out; an admission keeps its own reference, so eviction never loses a permit
+        circuits = Caffeine.newBuilder()
+            .expireAfterAccess(Duration.ofHours(1))
+            .build();
+        
+        rejected = Counter.builder("notification.webhook.rejected")
+            .description("Webhook calls parked by an open circuit or a full concurrency limit")
+            .register(meterRegistry);
+        for (AdaptiveCircuit.State state : AdaptiveCircuit.State.values()) {
+            Gauge.builder("notification.webhook.circuits", this, guard -> guard.countInState(state))
+                .tag("state", state.name().toLowerCase())
+                .register(meterRegistry);
+        }
+        Gauge.builder("notification.webhook.in-flight", this, guard -> guard.circuits.asMap().values().stream()
+                .mapToInt(AdaptiveCircuit::inFlight)
+                .sum())
+            .register(meterRegistry);
+        Gauge.builder("notification.webhook.concurrency.limit.min", this, guard -> guard.circuits.asMap().values().stream()
+                .mapToInt(AdaptiveCircuit::limit)
+                .min()
+                .orElse(guard.initialLimit))
+            .description("Concurrency limit of the most constrained webhook URL")
+            .register(meterRegistry);
+    }
+    
+    public Admission admit(String url) {
+        AdaptiveCircuit circuit = circuits.get(url, key -> new AdaptiveCircuit(settings));
+        long retryAt;
+        try {
+            retryAt = circuit.acquire(maxWaitMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            retryAt = System.currentTimeMillis() + throttleDelayMillis;
+        }
+        
+        if (retryAt == AdaptiveCircuit.ADMITTED || retryAt == AdaptiveCircuit.ADMITTED_PROBE) {
+            return new Admission(circuit, retryAt == AdaptiveCircuit.ADMITTED_PROBE, null);
+        }
+        rejected.increment();
+        log.debug("Webhook {} not attempted; parked until {}", url, Instant.ofEpochMilli(retryAt));
+        return new Admission(null, false, LocalDateTime.ofInstant(Instant.ofEpochMilli(retryAt), ZoneId.systemDefault()));
+    }
+    
+    private double countInState(AdaptiveCircuit.State state) {
+        return circuits.asMap().values().stream()
+            .filter(circuit -> circuit.state() == state)
+            .count();
+    }
+    
+    record Admission(AdaptiveCircuit circuit, boolean probe, LocalDateTime parkedUntil) {
+        
+        public boolean admitted() {
+            return circuit != null;
+        }
+        
+        // Only transport errors, 5xx and 429 count against the endpoint; other 4xx mean it is up
+        public void release(int statusCode, long latencyMillis) {
+            circuit.release(probe, statusCode >= 500 || statusCode == 429, latencyMillis);
+        }
+    }
+    
+    record Settings(
+        int failureThreshold,
+        long openDurationMillis,
+        int initialLimit,
+        int minLimit,
+        int maxLimit,
+        long latencyThresholdMillis,
+        long throttleDelayMillis
+    ) {
+    }
+}
@@ -0,0 +1,86 @@
+package com.enterprise.notification.service.dispatcher;
+
+import com.enterprise.notification.domain.entity.WebhookEndpoint;
+import com.enterprise.notification.domain.event.WebhookEndpointChangedEvent;
+import com.enterprise.notification.repository.WebhookEndpointRepository;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+
+// Active endpoints per user with their signing keys already prepared. JPA writes evict through
+// WebhookEndpointChangedEvent; writes from outside this service are only picked up when the TTL expires.
+@Component
+@RequiredArgsConstructor
+public class WebhookEndpointRegistry {
+    
+    private final WebhookEndpointRepository webhookEndpointRepository;
+    private final MeterRegistry meterRegistry;
+    
+    @Value("${notification.cache.webhook-endpoints.max-size:100000}")
+    private int maxSize;
+    
+    @Value("${notification.cache.webhook-endpoints.ttl:300000}")
+    private long ttlMillis;
+    
+    private LoadingCache<String, List<ActiveEndpoint>> endpoints;
+    
+    @PostConstruct
+    public void init() {
+        endpoints = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterWrite(Duration.ofMillis(ttlMillis))
+            .recordStats()
+            .build(userId -> webhookEndpointRepository.findByUserIdAndIsActive(userId, true).stream()
+                .map(ActiveEndpoint::of)
+                .toList());
+        CaffeineCacheMetrics.monitor(meterRegistry, endpoints, "webhook-endpoints");
+    }
+    
+    public List<ActiveEndpoint> getActiveEndpoints(String userId) {
+        return endpoints.get(userId);
+    }
+    
+    @EventListener
+    public void onEndpointChanged(WebhookEndpointChangedEvent event) {
+        evictAfterCommit(event.userId());
+    }
+    
+    // Deferred until commit so a concurrent load cannot re-cache the pre-change rows
+    private void evictAfterCommit(String userId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            endpoints.invalidate(userId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                endpoints.invalidate(userId);
+            }
+        });
+    }
+    
+    public record ActiveEndpoint(Long id, String url, URI uri, SecretKeySpec signingKey) {
+        
+        static ActiveEndpoint of(WebhookEndpoint endpoint) {
+            return new ActiveEndpoint(
+                endpoint.getId(),
+                endpoint.getUrl(),
+                URI.create(endpoint.getUrl()),
+                WebhookSigner.prepareKey(endpoint.getSecretKey())
+            );
+        }
+    }
+}
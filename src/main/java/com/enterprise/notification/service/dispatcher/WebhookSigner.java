@@ -0,0 +1,46 @@
+package com.enterprise.notification.service.dispatcher;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.InvalidKeyException;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+// HMAC-SHA256 signing with Mac instances reused from a shared pool
+@Component
+public class WebhookSigner {
+    
+    private static final String ALGORITHM = "HmacSHA256";
+    
+    private final BlockingQueue<Mac> macs;
+    
+    public WebhookSigner(@Value("${notification.providers.webhook.signing.mac-pool-size:256}") int macPoolSize) {
+        // Shared rather than ThreadLocal: dispatch runs on short-lived virtual threads that would never reuse one
+        this.macs = new ArrayBlockingQueue<>(macPoolSize);
+    }
+    
+    public static SecretKeySpec prepareKey(String secretKey) {
+        return new SecretKeySpec(secretKey.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+    }
+    
+    public String sign(SecretKeySpec key, byte[] payload) {
+        Mac mac = macs.poll();
+        try {
+            if (mac == null) {
+                mac = Mac.getInstance(ALGORITHM);
+            }
+            mac.init(key);
+            String signature = Base64.getEncoder().encodeToString(mac.doFinal(payload));
+            macs.offer(mac);
+            return signature;
+        } catch (NoSuchAlgorithmException | InvalidKeyException e) {
+            throw new IllegalStateException("Failed to generate signature", e);
+        }
+    }
+}
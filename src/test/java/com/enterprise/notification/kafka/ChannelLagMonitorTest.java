@@ -0,0 +1,100 @@
+package com.enterprise.notification.kafka;
+
+import com.enterprise.notification.domain.enums.NotificationType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ChannelLagMonitorTest {
+    
+    private static EmbeddedKafkaBroker broker;
+    
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ChannelLagMonitor monitor;
+    
+    @BeforeAll
+    static void startBroker() {
+        broker = new EmbeddedKafkaKraftBroker(1, 2, NotificationTopics.topics(NotificationType.EMAIL));
+        broker.afterPropertiesSet();
+    }
+    
+    @AfterAll
+    static void stopBroker() {
+        broker.destroy();
+    }
+    
+    @BeforeEach
+    void setUp() {
+        monitor = new ChannelLagMonitor(
+            new KafkaAdmin(Map.of(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString())),
+            meterRegistry);
+        monitor.init();
+    }
+    
+    @AfterEach
+    void tearDown() {
+        monitor.close();
+    }
+    
+    @Test
+    void countsPartitionsTheGroupHasNotCommittedOnFromTheEarliestOffset() throws Exception {
+        String topic = NotificationTopics.request(NotificationType.EMAIL);
+        try (KafkaProducer<String, String> producer = new KafkaProducer<>(Map.of(
+                ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString(),
+                ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class,
+                ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class))) {
+            for (int i = 0; i < 3; i++) {
+                producer.send(new ProducerRecord<>(topic, 0, null, "p0-" + i)).get();
+            }
+            for (int i = 0; i < 2; i++) {
+                producer.send(new ProducerRecord<>(topic, 1, null, "p1-" + i)).get();
+            }
+        }
+        
+        monitor.refresh();
+        assertThat(lag("email")).isEqualTo(5.0);
+        
+        // Committing on one partition only still counts the other one in full
+        try (KafkaConsumer<String, String> consumer = new KafkaConsumer<>(Map.of(
+                ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString(),
+                ConsumerConfig.GROUP_ID_CONFIG, NotificationTopics.groupId(NotificationType.EMAIL),
+                ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class,
+                ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class))) {
+            consumer.commitSync(Map.of(new TopicPartition(topic, 0), new OffsetAndMetadata(2)));
+        }
+        
+        monitor.refresh();
+        assertThat(lag("email")).isEqualTo(3.0);
+    }
+    
+    @Test
+    void ignoresTopicsThatDoNotExistYet() {
+        monitor.refresh();
+        
+        assertThat(lag("sms")).isZero();
+    }
+    
+    private double lag(String channel) {
+        return meterRegistry.get("notification.kafka.lag").tag("channel", channel).tag("lane", "normal").gauge().value();
+    }
+}
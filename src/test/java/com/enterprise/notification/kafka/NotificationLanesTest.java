@@ -0,0 +1,224 @@
+package com.enterprise.notification.kafka;
+
+import com.enterprise.notification.domain.entity.Notification;
+import com.enterprise.notification.domain.enums.NotificationPriority;
+import com.enterprise.notification.domain.enums.NotificationStatus;
+import com.enterprise.notification.domain.enums.NotificationType;
+import com.enterprise.notification.service.NotificationDispatcherService;
+import com.enterprise.notification.service.NotificationStatusWriter;
+import com.enterprise.notification.service.RetryPolicy;
+import com.enterprise.notification.service.dispatcher.NotificationDispatcher;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.support.PropertySourcesPlaceholderConfigurer;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.kafka.annotation.EnableKafka;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+import org.springframework.kafka.test.utils.ContainerTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.Mockito.mock;
+
+// Runs the real listener containers and NotificationDispatcherService against an embedded broker, with a stub
+// provider that makes BULK sends slow, and compares HIGH latency with and without a BULK flood. The global limit is
+// only a few permits above the bulk lane's, so BULK holds most global permits while it floods.
+class NotificationLanesTest {
+    
+    private static final int PARTITIONS = 2;
+    private static final int MAX_CONCURRENCY = 20;
+    private static final int BULK_MAX_CONCURRENCY = 16;
+    private static final int BULK_FLOOD = 600;
+    private static final int HIGH_SENDS = 200;
+    private static final long BULK_SEND_MILLIS = 100;
+    private static final long HIGH_SEND_MILLIS = 5;
+    
+    private static EmbeddedKafkaBroker broker;
+    
+    private static final ConcurrentLinkedQueue<Long> highLatencies = new ConcurrentLinkedQueue<>();
+    private static final AtomicInteger bulkSent = new AtomicInteger();
+    
+    @BeforeAll
+    static void startBroker() {
+        String[] topics = Stream.concat(
+            Stream.of(NotificationType.values()).flatMap(type -> Stream.of(
+                NotificationTopics.request(type), NotificationTopics.retry(type),
+                NotificationTopics.high(type), NotificationTopics.bulk(type))),
+            Stream.of(NotificationTopics.LEGACY_REQUEST, NotificationTopics.LEGACY_RETRY)
+        ).toArray(String[]::new);
+        broker = new EmbeddedKafkaKraftBroker(1, PARTITIONS, topics);
+        broker.afterPropertiesSet();
+    }
+    
+    @AfterAll
+    static void stopBroker() {
+        broker.destroy();
+    }
+    
+    @Test
+    void bulkFloodDoesNotDelayHighPriority() throws Exception {
+        try (AnnotationConfigApplicationContext context = context();
+             KafkaProducer<String, Notification> producer = producer()) {
+            for (MessageListenerContainer container : context.getBean(KafkaListenerEndpointRegistry.class).getListenerContainers()) {
+                int topics = container.getContainerProperties().getTopics().length;
+                ContainerTestUtils.waitForAssignment(container, topics * PARTITIONS);
+            }
+            
+            long baselineP99 = highP99(producer);
+            
+            for (int i = 0; i < BULK_FLOOD; i++) {
+                send(producer, notification(NotificationType.EMAIL, NotificationPriority.BULK));
+                send(producer, notification(NotificationType.PUSH, NotificationPriority.BULK));
+            }
+            producer.flush();
+            await().atMost(Duration.ofSeconds(30)).until(() -> bulkSent.get() > 0);
+            long floodP99 = highP99(producer);
+            
+            // Waiting on global permits held by BULK would add up to a whole BULK send
+            assertThat(floodP99)
+                .as("HIGH p99 with a BULK flood, against %d ms without", baselineP99)
+                .isLessThan(baselineP99 + BULK_SEND_MILLIS / 2);
+            assertThat(bulkSent.get())
+                .as("BULK flood still running when the last HIGH notification was sent")
+                .isLessThan(2 * BULK_FLOOD);
+        }
+    }
+    
+    // Sends HIGH push notifications at a steady rate and returns the p99 from creation to the provider call
+    private static long highP99(KafkaProducer<String, Notification> producer) throws InterruptedException {
+        highLatencies.clear();
+        for (int i = 0; i < HIGH_SENDS; i++) {
+            send(producer, notification(NotificationType.PUSH, NotificationPriority.HIGH));
+            producer.flush();
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+        await().atMost(Duration.ofSeconds(60)).until(() -> highLatencies.size() >= HIGH_SENDS);
+        
+        List<Long> sorted = new ArrayList<>(highLatencies);
+        sorted.sort(null);
+        return sorted.get((int) Math.ceil(sorted.size() * 0.99) - 1);
+    }
+    
+    private static AnnotationConfigApplicationContext context() {
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+        context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("lanes", Map.of(
+            "notification.dispatch.max-concurrency", MAX_CONCURRENCY,
+            "notification.dispatch.channel-max-concurrency", MAX_CONCURRENCY,
+            "notification.dispatch.lanes.high.max-concurrency", MAX_CONCURRENCY,
+            "notification.dispatch.lanes.bulk.max-concurrency", BULK_MAX_CONCURRENCY)));
+        context.register(LaneConfig.class);
+        context.refresh();
+        return context;
+    }
+    
+    private static void send(KafkaProducer<String, Notification> producer, Notification notification) {
+        producer.send(new ProducerRecord<>(NotificationTopics.request(notification), notification.getUserId(), notification));
+    }
+    
+    private static KafkaProducer<String, Notification> producer() {
+        return new KafkaProducer<>(Map.of(
+            ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString(),
+            ProducerConfig.LINGER_MS_CONFIG, 0),
+            new StringSerializer(), new JsonSerializer<>());
+    }
+    
+    private static Notification notification(NotificationType type, NotificationPriority priority) {
+        return Notification.builder()
+            .id(UUID.randomUUID())
+            .userId(UUID.randomUUID().toString())
+            .type(type)
+            .priority(priority)
+            .status(NotificationStatus.QUEUED)
+            .retries(0)
+            .createdAt(LocalDateTime.now())
+            .build();
+    }
+    
+    // Stands in for the providers: BULK sends are slow, HIGH sends are quick and timed
+    private static final class StubDispatcher implements NotificationDispatcher {
+        
+        @Override
+        public void dispatch(Notification notification) {
+            try {
+                if (notification.getPriority() == NotificationPriority.BULK) {
+                    TimeUnit.MILLISECONDS.sleep(BULK_SEND_MILLIS);
+                    bulkSent.incrementAndGet();
+                } else {
+                    highLatencies.add(Duration.between(notification.getCreatedAt(), LocalDateTime.now()).toMillis());
+                    TimeUnit.MILLISECONDS.sleep(HIGH_SEND_MILLIS);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        
+        @Override
+        public boolean supports(Notification notification) {
+            return true;
+        }
+    }
+    
+    @Configuration
+    @EnableKafka
+    static class LaneConfig {
+        
+        @Bean
+        static PropertySourcesPlaceholderConfigurer placeholderConfigurer() {
+            return new PropertySourcesPlaceholderConfigurer();
+        }
+        
+        @Bean
+        ConcurrentKafkaListenerContainerFactory<String, Notification> kafkaListenerContainerFactory() {
+            JsonDeserializer<Notification> deserializer = new JsonDeserializer<>(Notification.class, false);
+            deserializer.addTrustedPackages("*");
+            ConcurrentKafkaListenerContainerFactory<String, Notification> factory = new ConcurrentKafkaListenerContainerFactory<>();
+            factory.setConsumerFactory(new DefaultKafkaConsumerFactory<>(Map.of(
+                ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString(),
+                ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest"),
+                new StringDeserializer(), deserializer));
+            factory.setBatchListener(true);
+            return factory;
+        }
+        
+        @Bean
+        NotificationDispatcherService dispatcherService(Environment environment) {
+            return new NotificationDispatcherService(List.of(new StubDispatcher()), mock(NotificationStatusWriter.class),
+                mock(RetryPolicy.class), new SimpleMeterRegistry(), environment);
+        }
+        
+        @Bean
+        NotificationConsumer notificationConsumer(NotificationDispatcherService dispatcherService) {
+            return new NotificationConsumer(dispatcherService);
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.enterprise.notification.scheduler;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.ref.Reference;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// At the production tick (100 ms), wheel size and level count: cost per notification of preloading a 5-minute window
+// and firing it, retained heap per million scheduled entries, and how late entries fire when the wheel is driven by a
+// real ticker the way TimingWheelScheduler drives it. See README "Benchmarks" for how to run.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TimingWheelBenchmark {
+    
+    private static final long TICK_MILLIS = 100;
+    private static final long WINDOW_MILLIS = 300_000;
+    private static final int ENTRIES = 100_000;
+    private static final int MEMORY_ENTRIES = 1_000_000;
+    private static final long ACCURACY_WINDOW_MILLIS = 3_000;
+    private static final int ACCURACY_ENTRIES = 10_000;
+    
+    @Param({"512"})
+    private int wheelSize;
+    
+    private UUID[] ids;
+    private long[] deadlines;
+    
+    @Setup
+    public void setUp() {
+        Random random = new Random(7);
+        ids = new UUID[ENTRIES];
+        deadlines = new long[ENTRIES];
+        for (int i = 0; i < ENTRIES; i++) {
+            ids[i] = new UUID(random.nextLong(), random.nextLong());
+            deadlines[i] = 1 + (long) (random.nextDouble() * (WINDOW_MILLIS - 1));
+        }
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(ENTRIES)
+    public long preloadAndFire() {
+        TimingWheel wheel = new TimingWheel(TICK_MILLIS, wheelSize, 3, 0);
+        for (int i = 0; i < ENTRIES; i++) {
+            wheel.add(ids[i], deadlines[i]);
+        }
+        long[] checksum = new long[1];
+        for (long now = TICK_MILLIS; now <= WINDOW_MILLIS; now += TICK_MILLIS) {
+            wheel.advance(now, (msb, lsb, deadline) -> checksum[0] += lsb);
+        }
+        return checksum[0];
+    }
+    
+    // Heap retained by a wheel holding a million entries spread over the window, measured after full collections
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 1)
+    public void memoryPerMillionEntries(MemoryCounters counters) throws InterruptedException {
+        Random random = new Random(11);
+        long before = usedHeapAfterGc();
+        TimingWheel wheel = new TimingWheel(TICK_MILLIS, wheelSize, 3, 0);
+        for (int i = 0; i < MEMORY_ENTRIES; i++) {
+            wheel.add(new UUID(random.nextLong(), random.nextLong()), 1 + (long) (random.nextDouble() * (WINDOW_MILLIS - 1)));
+        }
+        long after = usedHeapAfterGc();
+        Reference.reachabilityFence(wheel);
+        counters.retainedMib = (after - before) / (1024.0 * 1024.0) * (1_000_000.0 / MEMORY_ENTRIES);
+    }
+    
+    // Fire time minus deadline for entries due over the next few seconds. Never negative; rounding the deadline up to
+    // a tick and the ticker's phase against tick boundaries can each add up to one tick, plus scheduling delay.
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 1)
+    public void firingSkew(SkewCounters counters) throws InterruptedException {
+        Random random = new Random(13);
+        long start = System.currentTimeMillis();
+        TimingWheel wheel = new TimingWheel(TICK_MILLIS, wheelSize, 3, start);
+        for (int i = 0; i < ACCURACY_ENTRIES; i++) {
+            wheel.add(new UUID(random.nextLong(), random.nextLong()), start + 1 + (long) (random.nextDouble() * ACCURACY_WINDOW_MILLIS));
+        }
+        
+        long[] skews = new long[ACCURACY_ENTRIES];
+        int[] fired = new int[1];
+        CountDownLatch done = new CountDownLatch(1);
+        ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor();
+        ticker.scheduleAtFixedRate(() -> {
+            long now = System.currentTimeMillis();
+            wheel.advance(now, (msb, lsb, deadline) -> skews[fired[0]++] = System.currentTimeMillis() - deadline);
+            if (wheel.size() == 0) {
+                done.countDown();
+            }
+        }, TICK_MILLIS, TICK_MILLIS, TimeUnit.MILLISECONDS);
+        done.await();
+        ticker.shutdownNow();
+        
+        Arrays.sort(skews);
+        counters.skewMinMillis = skews[0];
+        counters.skewP50Millis = skews[ACCURACY_ENTRIES / 2];
+        counters.skewP99Millis = skews[(int) Math.ceil(ACCURACY_ENTRIES * 0.99) - 1];
+        counters.skewMaxMillis = skews[ACCURACY_ENTRIES - 1];
+    }
+    
+    private static long usedHeapAfterGc() throws InterruptedException {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            TimeUnit.MILLISECONDS.sleep(100);
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+    
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class MemoryCounters {
+        public double retainedMib;
+    }
+    
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class SkewCounters {
+        public long skewMinMillis;
+        public long skewP50Millis;
+        public long skewP99Millis;
+        public long skewMaxMillis;
+    }
+    
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(TimingWheelBenchmark.class.getSimpleName()).build()).run();
+    }
+}
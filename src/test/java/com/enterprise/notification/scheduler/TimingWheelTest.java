@@ -0,0 +1,70 @@
+package com.enterprise.notification.scheduler;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TimingWheelTest {
+    
+    private static final long TICK = 10;
+    
+    @Test
+    void firesEveryEntryOnTheFirstTickAtOrAfterItsDeadline() {
+        TimingWheel wheel = new TimingWheel(TICK, 8, 3, 0);
+        Random random = new Random(42);
+        long horizon = wheel.horizonMillis();
+        Map<UUID, Long> deadlines = new HashMap<>();
+        for (int i = 0; i < 5_000; i++) {
+            UUID id = UUID.randomUUID();
+            long deadline = 1 + random.nextInt((int) (horizon - TICK));
+            assertThat(wheel.add(id, deadline)).isTrue();
+            deadlines.put(id, deadline);
+        }
+        
+        Map<UUID, Long> firedAt = new HashMap<>();
+        for (long now = TICK; now <= horizon; now += TICK) {
+            long current = now;
+            wheel.advance(now, (msb, lsb, deadline) -> firedAt.put(new UUID(msb, lsb), current));
+        }
+        
+        assertThat(firedAt).hasSameSizeAs(deadlines);
+        assertThat(wheel.size()).isZero();
+        deadlines.forEach((id, deadline) ->
+            assertThat(firedAt.get(id)).isEqualTo(Math.floorDiv(deadline + TICK - 1, TICK) * TICK));
+    }
+    
+    @Test
+    void overdueEntriesFireOnTheNextTick() {
+        TimingWheel wheel = new TimingWheel(TICK, 8, 2, 1_000);
+        UUID id = UUID.randomUUID();
+        wheel.add(id, 500);
+        
+        assertThat(wheel.advance(1_000 + TICK - 1, (msb, lsb, deadline) -> { })).isZero();
+        assertThat(wheel.advance(1_000 + TICK, (msb, lsb, deadline) -> assertThat(new UUID(msb, lsb)).isEqualTo(id)))
+            .isEqualTo(1);
+    }
+    
+    @Test
+    void rejectsDeadlinesBeyondTheHorizon() {
+        TimingWheel wheel = new TimingWheel(TICK, 8, 3, 0);
+        
+        assertThat(wheel.horizonMillis()).isEqualTo(8 * 8 * 8 * TICK);
+        // Deadlines round up to a tick, so the last tick before the horizon is the last one that fits
+        assertThat(wheel.add(UUID.randomUUID(), wheel.horizonMillis() - TICK)).isTrue();
+        assertThat(wheel.add(UUID.randomUUID(), wheel.horizonMillis() - TICK + 1)).isFalse();
+        assertThat(wheel.add(UUID.randomUUID(), wheel.horizonMillis())).isFalse();
+        assertThat(wheel.size()).isEqualTo(1);
+    }
+    
+    @Test
+    void requiresPowerOfTwoWheelSize() {
+        assertThatThrownBy(() -> new TimingWheel(TICK, 100, 3, 0))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,69 @@
+package com.enterprise.notification.service;
+
+import com.enterprise.notification.dto.BulkItemResult;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BulkIngestServiceTest {
+    
+    private static final String VALID = "{\"userId\":\"user-1\",\"type\":\"EMAIL\",\"payload\":{\"to\":\"a@example.com\"}}";
+    
+    private final NotificationService notificationService = mock(NotificationService.class);
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    
+    @Test
+    void rejectsAnOverlongLineAndKeepsReading() throws IOException {
+        when(notificationService.ingestChunk(anyList())).thenReturn(List.of(BulkItemResult.builder().build()));
+        String upload = "{\"userId\":\"" + "x".repeat(500) + "\"}\r\n" + VALID + "\r\n";
+        
+        List<JsonNode> results = ingest(upload, 100);
+        
+        assertThat(results).hasSize(2);
+        assertThat(results.get(0).get("line").asLong()).isEqualTo(1);
+        assertThat(results.get(0).get("error").asText()).isEqualTo("Line exceeds 100 characters");
+        assertThat(results.get(1).get("line").asLong()).isEqualTo(2);
+        assertThat(results.get(1).has("error")).isFalse();
+    }
+    
+    @Test
+    void rejectsAnUploadWithoutNewlines() throws IOException {
+        List<JsonNode> results = ingest("x".repeat(10_000), 100);
+        
+        assertThat(results).singleElement()
+            .satisfies(result -> assertThat(result.get("error").asText()).isEqualTo("Line exceeds 100 characters"));
+    }
+    
+    private List<JsonNode> ingest(String upload, int maxLineLength) throws IOException {
+        BulkIngestService service = new BulkIngestService(notificationService, objectMapper,
+            Validation.buildDefaultValidatorFactory().getValidator());
+        ReflectionTestUtils.setField(service, "chunkSize", 10);
+        ReflectionTestUtils.setField(service, "maxLineLength", maxLineLength);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        
+        service.ingest(new ByteArrayInputStream(upload.getBytes(StandardCharsets.UTF_8)), output);
+        
+        return output.toString(StandardCharsets.UTF_8).lines()
+            .map(line -> {
+                try {
+                    return objectMapper.readTree(line);
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            })
+            .toList();
+    }
+}
@@ -0,0 +1,125 @@
+package com.enterprise.notification.service;
+
+import com.enterprise.notification.domain.entity.DeliveryLog;
+import com.enterprise.notification.domain.entity.DeliveryPayload;
+import com.enterprise.notification.domain.entity.Notification;
+import com.enterprise.notification.repository.DeliveryLogRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class DeliveryLogRecorderTest {
+    
+    private final DeliveryLogRepository repository = mock(DeliveryLogRepository.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private DeliveryLogRecorder recorder;
+    
+    @BeforeEach
+    void setUp() {
+        recorder = startRecorder(10, 10L);
+    }
+    
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        recorder.stop();
+    }
+    
+    @Test
+    void retriesAFailedBatchInsteadOfDroppingIt() throws InterruptedException {
+        doThrow(new DataAccessResourceFailureException("connection reset"))
+            .doNothing()
+            .when(repository).batchInsert(anyList());
+        
+        recorder.record(notification(), "ok", 200);
+        
+        verify(repository, timeout(2_000).times(2)).batchInsert(anyList());
+        recorder.stop();
+        
+        assertThat(meterRegistry.get("notification.delivery-log.written").counter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("notification.delivery-log.dropped").counter().count()).isZero();
+    }
+    
+    @Test
+    void dropsOnlyAfterEveryAttemptFailed() throws InterruptedException {
+        doThrow(new DataAccessResourceFailureException("down")).when(repository).batchInsert(anyList());
+        
+        recorder.record(notification(), "ok", 200);
+        verify(repository, timeout(2_000).times(3)).batchInsert(anyList());
+        recorder.stop();
+        
+        assertThat(meterRegistry.get("notification.delivery-log.dropped").counter().count()).isEqualTo(1.0);
+    }
+    
+    @Test
+    void writesInlineOnceTheWriterHasStopped() throws InterruptedException {
+        doNothing().when(repository).batchInsert(anyList());
+        recorder.stop();
+        
+        recorder.record(notification(), "late", 200);
+        
+        verify(repository, times(1)).batchInsert(anyList());
+    }
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    void writesEachDistinctPayloadOncePerBatch() throws InterruptedException {
+        recorder.stop();
+        // A batch of two and a long interval make both records land in the same flush
+        recorder = startRecorder(2, 5_000L);
+        
+        recorder.record(notification(), "first", 500);
+        recorder.record(notification(), "second", 200);
+        recorder.stop();
+        
+        ArgumentCaptor<List<DeliveryPayload>> payloads = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<List<DeliveryLog>> logs = ArgumentCaptor.forClass(List.class);
+        verify(repository).batchInsertPayloads(payloads.capture());
+        verify(repository).batchInsert(logs.capture());
+        
+        assertThat(payloads.getValue()).hasSize(1);
+        String hash = payloads.getValue().get(0).getHash();
+        assertThat(logs.getValue()).hasSize(2)
+            .allSatisfy(log -> assertThat(log.getRequestPayloadHash()).isEqualTo(hash));
+    }
+    
+    private DeliveryLogRecorder startRecorder(int batchSize, long flushIntervalMillis) {
+        DeliveryLogRecorder started = new DeliveryLogRecorder(repository, meterRegistry, new ObjectMapper(),
+            new TransactionTemplate(mock(PlatformTransactionManager.class)));
+        ReflectionTestUtils.setField(started, "queueCapacity", 100);
+        ReflectionTestUtils.setField(started, "batchSize", batchSize);
+        ReflectionTestUtils.setField(started, "flushIntervalMillis", flushIntervalMillis);
+        ReflectionTestUtils.setField(started, "compressionThreshold", 512);
+        ReflectionTestUtils.setField(started, "maxFlushAttempts", 3);
+        ReflectionTestUtils.setField(started, "retryBackoffMillis", 10L);
+        started.start();
+        return started;
+    }
+    
+    private static Notification notification() {
+        return Notification.builder()
+            .id(UUID.randomUUID())
+            .retries(0)
+            .payload(Map.of("to", "user@example.com"))
+            .build();
+    }
+}
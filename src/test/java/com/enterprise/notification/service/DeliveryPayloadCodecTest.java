@@ -0,0 +1,51 @@
+package com.enterprise.notification.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DeliveryPayloadCodecTest {
+    
+    private static final byte[] BODY = "{\"to\":\"user@example.com\",\"subject\":\"Welcome\"}".getBytes(StandardCharsets.UTF_8);
+    
+    @Test
+    void hashIsStableHexSha256OfTheContent() {
+        String hash = DeliveryPayloadCodec.hash(BODY);
+        
+        assertThat(hash).hasSize(64).matches("[0-9a-f]+");
+        assertThat(DeliveryPayloadCodec.hash(BODY.clone())).isEqualTo(hash);
+        assertThat(DeliveryPayloadCodec.hash("{}".getBytes(StandardCharsets.UTF_8))).isNotEqualTo(hash);
+    }
+    
+    @Test
+    void compressesOnlyFromTheThresholdUp() {
+        assertThat(DeliveryPayloadCodec.compressionFor(BODY, BODY.length + 1)).isEqualTo(DeliveryPayloadCodec.NONE);
+        assertThat(DeliveryPayloadCodec.compressionFor(BODY, BODY.length)).isEqualTo(DeliveryPayloadCodec.DEFLATE);
+    }
+    
+    @Test
+    void deflatedContentRoundTrips() {
+        byte[] large = "{\"message\":\"hello\"}".repeat(200).getBytes(StandardCharsets.UTF_8);
+        
+        byte[] compressed = DeliveryPayloadCodec.compress(large);
+        
+        assertThat(compressed.length).isLessThan(large.length);
+        assertThat(DeliveryPayloadCodec.decode(DeliveryPayloadCodec.DEFLATE, compressed, large.length))
+            .isEqualTo(new String(large, StandardCharsets.UTF_8));
+    }
+    
+    @Test
+    void uncompressedContentIsReadAsIs() {
+        assertThat(DeliveryPayloadCodec.decode(DeliveryPayloadCodec.NONE, BODY, BODY.length))
+            .isEqualTo(new String(BODY, StandardCharsets.UTF_8));
+    }
+    
+    @Test
+    void rejectsCorruptDeflatedContent() {
+        assertThatThrownBy(() -> DeliveryPayloadCodec.decode(DeliveryPayloadCodec.DEFLATE, BODY, 100))
+            .isInstanceOf(IllegalStateException.class);
+    }
+}
@@ -0,0 +1,105 @@
+package com.enterprise.notification.service;
+
+import com.enterprise.notification.domain.entity.Notification;
+import com.enterprise.notification.domain.enums.NotificationPriority;
+import com.enterprise.notification.domain.enums.NotificationStatus;
+import com.enterprise.notification.domain.enums.NotificationType;
+import com.enterprise.notification.service.dispatcher.NotificationDispatcher;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class NotificationDispatcherServiceTest {
+    
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicInteger peak = new AtomicInteger();
+    private NotificationDispatcherService service;
+    
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+    
+    @Test
+    void globalLimitCapsDispatchesAcrossChannelsAndLanes() {
+        service = service(4, 10);
+        List<Notification> notifications = new ArrayList<>();
+        for (NotificationType type : List.of(NotificationType.EMAIL, NotificationType.SMS, NotificationType.PUSH)) {
+            for (NotificationPriority priority : NotificationPriority.values()) {
+                for (int i = 0; i < 4; i++) {
+                    notifications.add(notification(type, priority));
+                }
+            }
+        }
+        
+        service.dispatchAll(notifications);
+        
+        assertThat(peak.get()).isEqualTo(4);
+    }
+    
+    @Test
+    void channelLimitIsSeparateFromTheGlobalOne() {
+        service = service(10, 2);
+        List<Notification> notifications = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            notifications.add(notification(NotificationType.EMAIL, NotificationPriority.NORMAL));
+        }
+        
+        service.dispatchAll(notifications);
+        
+        assertThat(peak.get()).isEqualTo(2);
+        assertThat(meterRegistry.get("notification.dispatch.in-flight").gauge().value()).isZero();
+    }
+    
+    private NotificationDispatcherService service(int maxConcurrency, int channelMaxConcurrency) {
+        NotificationDispatcher slow = new NotificationDispatcher() {
+            @Override
+            public void dispatch(Notification notification) {
+                peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+                try {
+                    TimeUnit.MILLISECONDS.sleep(50);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    running.decrementAndGet();
+                }
+            }
+            
+            @Override
+            public boolean supports(Notification notification) {
+                return true;
+            }
+        };
+        NotificationDispatcherService dispatcherService = new NotificationDispatcherService(List.of(slow),
+            mock(NotificationStatusWriter.class), mock(RetryPolicy.class), meterRegistry, new MockEnvironment());
+        ReflectionTestUtils.setField(dispatcherService, "maxConcurrency", maxConcurrency);
+        ReflectionTestUtils.setField(dispatcherService, "channelMaxConcurrency", channelMaxConcurrency);
+        ReflectionTestUtils.setField(dispatcherService, "highMaxConcurrency", 10);
+        ReflectionTestUtils.setField(dispatcherService, "bulkMaxConcurrency", 10);
+        dispatcherService.init();
+        return dispatcherService;
+    }
+    
+    private static Notification notification(NotificationType type, NotificationPriority priority) {
+        return Notification.builder()
+            .id(UUID.randomUUID())
+            .userId(UUID.randomUUID().toString())
+            .type(type)
+            .priority(priority)
+            .status(NotificationStatus.PROCESSING)
+            .retries(0)
+            .build();
+    }
+}
@@ -0,0 +1,91 @@
+package com.enterprise.notification.service;
+
+import com.enterprise.notification.domain.entity.Notification;
+import com.enterprise.notification.domain.enums.NotificationStatus;
+import com.enterprise.notification.repository.NotificationRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class NotificationStatusWriterTest {
+    
+    private final NotificationRepository repository = mock(NotificationRepository.class);
+    private NotificationStatusWriter writer;
+    
+    @BeforeEach
+    void setUp() {
+        writer = new NotificationStatusWriter(repository, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(writer, "queueCapacity", 100);
+        ReflectionTestUtils.setField(writer, "batchSize", 3);
+        // Long enough that the three submits below always share one batch
+        ReflectionTestUtils.setField(writer, "lingerMillis", 5_000L);
+        writer.start();
+    }
+    
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        writer.stop();
+    }
+    
+    @Test
+    void oneBadRowFailsOnlyItsOwnCaller() throws Exception {
+        Notification good = notification();
+        Notification bad = notification();
+        Notification rejected = notification();
+        when(repository.batchUpdateStatus(anyList(), any())).thenAnswer(invocation -> {
+            List<Notification> rows = invocation.getArgument(0);
+            if (rows.contains(bad)) {
+                throw new DataIntegrityViolationException("value too long");
+            }
+            return new int[]{rows.contains(rejected) ? 0 : 1};
+        });
+        
+        CompletableFuture<Boolean> first = writer.submit(good);
+        CompletableFuture<Boolean> second = writer.submit(bad);
+        CompletableFuture<Boolean> third = writer.submit(rejected);
+        
+        assertThat(first.get(2, TimeUnit.SECONDS)).isTrue();
+        assertThat(third.get(2, TimeUnit.SECONDS)).isFalse();
+        assertThatThrownBy(second::join)
+            .isInstanceOf(CompletionException.class)
+            .hasCauseInstanceOf(DataIntegrityViolationException.class);
+    }
+    
+    @Test
+    void writesInlineOnceTheWriterHasStopped() throws Exception {
+        when(repository.batchUpdateStatus(anyList(), any())).thenReturn(new int[]{1});
+        writer.stop();
+        
+        Notification late = notification();
+        CompletableFuture<Boolean> result = writer.submit(late);
+        
+        assertThat(result).isCompletedWithValue(true);
+        verify(repository).batchUpdateStatus(eq(List.of(late)), any());
+    }
+    
+    private static Notification notification() {
+        return Notification.builder()
+            .id(UUID.randomUUID())
+            .status(NotificationStatus.SENT)
+            .retries(0)
+            .build();
+    }
+}
@@ -0,0 +1,42 @@
+package com.enterprise.notification.service.dispatcher;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveCircuitTest {
+    
+    // Threshold 1 and a zero open duration, so one failure opens the circuit and the next acquire half-opens it
+    private static final WebhookEndpointGuard.Settings SETTINGS =
+        new WebhookEndpointGuard.Settings(1, 0, 10, 1, 100, 2_000, 5_000);
+    
+    @Test
+    void stragglerReleaseDoesNotEndTheProbe() throws InterruptedException {
+        AdaptiveCircuit circuit = new AdaptiveCircuit(SETTINGS);
+        assertThat(circuit.acquire(0)).isEqualTo(AdaptiveCircuit.ADMITTED);
+        assertThat(circuit.acquire(0)).isEqualTo(AdaptiveCircuit.ADMITTED);
+        circuit.release(false, true, 10);
+        
+        assertThat(circuit.acquire(0)).isEqualTo(AdaptiveCircuit.ADMITTED_PROBE);
+        // The call admitted before the circuit opened finishes while the probe is still in flight
+        circuit.release(false, false, 10);
+        
+        assertThat(circuit.state()).isEqualTo(AdaptiveCircuit.State.HALF_OPEN);
+        assertThat(circuit.acquire(0)).isGreaterThan(AdaptiveCircuit.ADMITTED);
+    }
+    
+    @Test
+    void probeOutcomeClosesOrReopens() throws InterruptedException {
+        AdaptiveCircuit circuit = new AdaptiveCircuit(SETTINGS);
+        circuit.acquire(0);
+        circuit.release(false, true, 10);
+        
+        assertThat(circuit.acquire(0)).isEqualTo(AdaptiveCircuit.ADMITTED_PROBE);
+        circuit.release(true, true, 10);
+        assertThat(circuit.acquire(0)).isEqualTo(AdaptiveCircuit.ADMITTED_PROBE);
+        circuit.release(true, false, 10);
+        
+        assertThat(circuit.state()).isEqualTo(AdaptiveCircuit.State.CLOSED);
+        assertThat(circuit.acquire(0)).isEqualTo(AdaptiveCircuit.ADMITTED);
+    }
+}
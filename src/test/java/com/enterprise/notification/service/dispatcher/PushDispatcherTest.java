@@ -0,0 +1,105 @@
+package com.enterprise.notification.service.dispatcher;
+
+import com.enterprise.notification.domain.entity.Notification;
+import com.enterprise.notification.domain.enums.NotificationStatus;
+import com.enterprise.notification.domain.enums.NotificationType;
+import com.enterprise.notification.repository.PushDeliveryRepository;
+import com.enterprise.notification.service.DeliveryLogRecorder;
+import com.enterprise.notification.service.DeviceTokenService;
+import com.enterprise.notification.service.NotificationStatusWriter;
+import com.enterprise.notification.service.RetryPolicy;
+import com.enterprise.notification.service.dispatcher.FcmClient.PushResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PushDispatcherTest {
+    
+    private final FcmClient fcmClient = mock(FcmClient.class);
+    private final DeviceTokenService deviceTokenService = mock(DeviceTokenService.class);
+    private final PushDeliveryRepository pushDeliveryRepository = mock(PushDeliveryRepository.class);
+    private final RetryPolicy retryPolicy = mock(RetryPolicy.class);
+    
+    private PushDispatcher dispatcher;
+    
+    @BeforeEach
+    void setUp() {
+        when(retryPolicy.nextAttemptAt(anyInt())).thenAnswer(call -> LocalDateTime.now().plusMinutes(1));
+        when(deviceTokenService.getDeliverableTokens("user-1")).thenReturn(List.of("phone", "tablet", "old-phone"));
+        dispatcher = new PushDispatcher(mock(NotificationStatusWriter.class), mock(DeliveryLogRecorder.class), retryPolicy,
+            fcmClient, deviceTokenService, pushDeliveryRepository);
+    }
+    
+    @Test
+    void transientTokenErrorsAreRetriedEvenWhenOtherDevicesAccepted() {
+        respond("phone", PushResult.sent("m1"));
+        respond("tablet", PushResult.failed("UNAVAILABLE"));
+        respond("old-phone", PushResult.failed("UNREGISTERED"));
+        Notification notification = push(NotificationStatus.PROCESSING);
+        
+        dispatcher.dispatch(notification);
+        
+        assertThat(notification.getStatus()).isEqualTo(NotificationStatus.FAILED);
+        assertThat(notification.getRetries()).isEqualTo(1);
+        assertThat(notification.getNextAttemptAt()).isNotNull();
+        verify(pushDeliveryRepository).upsert(eq(notification.getId()), eq("phone"), eq("SENT"), any(), any());
+        verify(pushDeliveryRepository).upsert(eq(notification.getId()), eq("tablet"), eq("FAILED"), eq("UNAVAILABLE"), any());
+        verify(deviceTokenService).markInvalid(List.of("old-phone"));
+    }
+    
+    @Test
+    void retryOnlyResendsToDevicesThatHaveNotAccepted() {
+        when(pushDeliveryRepository.findDeliveredTokens(any())).thenReturn(List.of("phone"));
+        respond("tablet", PushResult.sent("m2"));
+        respond("old-phone", PushResult.failed("UNREGISTERED"));
+        Notification notification = push(NotificationStatus.RETRYING);
+        
+        dispatcher.dispatch(notification);
+        
+        verify(fcmClient, never()).send(eq("phone"), any(), any());
+        assertThat(notification.getStatus()).isEqualTo(NotificationStatus.SENT);
+    }
+    
+    @Test
+    void discardsWhenEveryDeviceIsUnregistered() {
+        respond("phone", PushResult.failed("UNREGISTERED"));
+        respond("tablet", PushResult.failed("SENDER_ID_MISMATCH"));
+        respond("old-phone", PushResult.failed("UNREGISTERED"));
+        Notification notification = push(NotificationStatus.PROCESSING);
+        
+        dispatcher.dispatch(notification);
+        
+        assertThat(notification.getStatus()).isEqualTo(NotificationStatus.FAILED);
+        assertThat(notification.getRetries()).isZero();
+        assertThat(notification.getNextAttemptAt()).isNull();
+    }
+    
+    private void respond(String token, PushResult result) {
+        when(fcmClient.send(eq(token), any(), any())).thenReturn(CompletableFuture.completedFuture(result));
+    }
+    
+    private static Notification push(NotificationStatus status) {
+        return Notification.builder()
+            .id(UUID.randomUUID())
+            .userId("user-1")
+            .type(NotificationType.PUSH)
+            .status(status)
+            .retries(status == NotificationStatus.RETRYING ? 1 : 0)
+            .payload(Map.of("title", "Hi", "body", "There"))
+            .build();
+    }
+}
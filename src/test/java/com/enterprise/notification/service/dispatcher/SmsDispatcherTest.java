@@ -0,0 +1,156 @@
+package com.enterprise.notification.service.dispatcher;
+
+import com.enterprise.notification.domain.entity.Notification;
+import com.enterprise.notification.domain.enums.NotificationStatus;
+import com.enterprise.notification.domain.enums.NotificationType;
+import com.enterprise.notification.service.DeliveryLogRecorder;
+import com.enterprise.notification.service.NotificationStatusWriter;
+import com.enterprise.notification.service.RetryPolicy;
+import com.enterprise.notification.service.TemplateService;
+import com.twilio.Twilio;
+import com.twilio.http.HttpClient;
+import com.twilio.http.NetworkHttpClient;
+import com.twilio.http.Request;
+import com.twilio.http.Response;
+import com.twilio.http.TwilioRestClient;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// MockWebServer stands in for the Twilio REST API
+class SmsDispatcherTest {
+    
+    private static final String ACCOUNT_SID = "AC00000000000000000000000000000000";
+    private static final String FROM = "+15550000001";
+    
+    private MockWebServer twilio;
+    private RetryPolicy retryPolicy;
+    private NotificationStatusWriter statusWriter;
+    
+    @BeforeEach
+    void setUp() throws IOException {
+        twilio = new MockWebServer();
+        twilio.start();
+        retryPolicy = mock(RetryPolicy.class);
+        statusWriter = mock(NotificationStatusWriter.class);
+        when(retryPolicy.nextAttemptAt(anyInt())).thenAnswer(call -> LocalDateTime.now().plusMinutes(1));
+    }
+    
+    @AfterEach
+    void tearDown() throws IOException {
+        Twilio.destroy();
+        twilio.shutdown();
+    }
+    
+    @Test
+    void sendsThroughTheProviderAndMarksSent() throws InterruptedException {
+        twilio.enqueue(created("SM1"));
+        Notification notification = sms();
+        
+        dispatcher(10, 250).dispatch(notification);
+        
+        RecordedRequest request = twilio.takeRequest();
+        assertThat(request.getPath()).isEqualTo("/2010-04-01/Accounts/" + ACCOUNT_SID + "/Messages.json");
+        assertThat(request.getBody().readUtf8()).contains("To=%2B15551234567", "From=%2B15550000001", "Body=hello");
+        assertThat(notification.getStatus()).isEqualTo(NotificationStatus.SENT);
+    }
+    
+    @Test
+    void parksWithoutConsumingARetryWhenNoTokenIsDueSoon() {
+        twilio.enqueue(created("SM1"));
+        SmsDispatcher dispatcher = dispatcher(1, 0);
+        Notification first = sms();
+        Notification second = sms();
+        
+        long started = System.nanoTime();
+        dispatcher.dispatch(first);
+        dispatcher.dispatch(second);
+        
+        // The second send would have had to wait about a second for a token; it must not sleep for it
+        assertThat(System.nanoTime() - started).isLessThan(500_000_000L);
+        assertThat(twilio.getRequestCount()).isEqualTo(1);
+        assertThat(first.getStatus()).isEqualTo(NotificationStatus.SENT);
+        assertThat(second.getStatus()).isEqualTo(NotificationStatus.THROTTLED);
+        assertThat(second.getRetries()).isZero();
+        assertThat(second.getNextAttemptAt()).isAfter(LocalDateTime.now());
+    }
+    
+    @Test
+    void providerErrorConsumesARetry() {
+        twilio.enqueue(new MockResponse().setResponseCode(400)
+            .setBody("{\"code\":21211,\"message\":\"Invalid 'To' Phone Number\",\"status\":400}"));
+        Notification notification = sms();
+        
+        dispatcher(10, 250).dispatch(notification);
+        
+        assertThat(notification.getStatus()).isEqualTo(NotificationStatus.FAILED);
+        assertThat(notification.getRetries()).isEqualTo(1);
+    }
+    
+    private SmsDispatcher dispatcher(double ratePerSecond, long maxWaitMillis) {
+        SmsRateLimiter limiter = new SmsRateLimiter(new String[]{FROM}, ratePerSecond, 1, maxWaitMillis, new SimpleMeterRegistry());
+        SmsDispatcher dispatcher = new SmsDispatcher(mock(TemplateService.class), statusWriter,
+            mock(DeliveryLogRecorder.class), retryPolicy, limiter);
+        ReflectionTestUtils.setField(dispatcher, "accountSid", ACCOUNT_SID);
+        ReflectionTestUtils.setField(dispatcher, "authToken", "token");
+        ReflectionTestUtils.setField(dispatcher, "maxInFlight", 10);
+        dispatcher.init();
+        // After init, which resets the global client
+        Twilio.setRestClient(new TwilioRestClient.Builder(ACCOUNT_SID, "token")
+            .httpClient(new RedirectingHttpClient(twilio.url("/").toString()))
+            .build());
+        return dispatcher;
+    }
+    
+    private static Notification sms() {
+        return Notification.builder()
+            .id(UUID.randomUUID())
+            .userId("user-1")
+            .type(NotificationType.SMS)
+            .status(NotificationStatus.PROCESSING)
+            .retries(0)
+            .payload(Map.of("to", "+15551234567", "message", "hello"))
+            .createdAt(LocalDateTime.now())
+            .build();
+    }
+    
+    private static MockResponse created(String sid) {
+        return new MockResponse().setResponseCode(201)
+            .setHeader("Content-Type", "application/json")
+            .setBody("{\"sid\":\"" + sid + "\",\"status\":\"queued\"}");
+    }
+    
+    // The SDK always targets api.twilio.com; rewrite the host and forward the form parameters unchanged
+    private static final class RedirectingHttpClient extends HttpClient {
+        
+        private final String baseUrl;
+        private final NetworkHttpClient delegate = new NetworkHttpClient();
+        
+        private RedirectingHttpClient(String baseUrl) {
+            this.baseUrl = baseUrl;
+        }
+        
+        @Override
+        public Response makeRequest(Request request) {
+            Request redirected = new Request(request.getMethod(), request.getUrl().replaceFirst("https://[^/]+/", baseUrl));
+            redirected.setAuth(request.getUsername(), request.getPassword());
+            request.getPostParams().forEach((name, values) -> values.forEach(value -> redirected.addPostParam(name, value)));
+            return delegate.makeRequest(redirected);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.enterprise.notification.service.dispatcher;
+
+import com.enterprise.notification.domain.enums.NotificationPriority;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SmsRateLimiterTest {
+    
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    
+    @Test
+    void bulkTakesOnlyATokenThatIsFreeNow() throws InterruptedException {
+        SmsRateLimiter limiter = limiter(10, 250);
+        
+        assertThat(limiter.acquire(NotificationPriority.BULK).acquired()).isTrue();
+        // The next token is 100ms out: within the maximum wait, but BULK does not wait for it
+        assertThat(limiter.acquire(NotificationPriority.BULK).acquired()).isFalse();
+        assertThat(limiter.acquire(NotificationPriority.HIGH).acquired()).isTrue();
+        
+        assertThat(meterRegistry.get("notification.sms.limiter.parked").tag("lane", "bulk").counter().count())
+            .isEqualTo(1.0);
+    }
+    
+    @Test
+    void parkedBulkSendsDoNotPushBackParkedHighPriorityOnes() throws InterruptedException {
+        SmsRateLimiter limiter = limiter(1, 0);
+        limiter.acquire(NotificationPriority.NORMAL);
+        
+        LocalDateTime lastBulkSlot = null;
+        for (int i = 0; i < 100; i++) {
+            lastBulkSlot = limiter.acquire(NotificationPriority.BULK).parkedUntil();
+        }
+        LocalDateTime highSlot = limiter.acquire(NotificationPriority.HIGH).parkedUntil();
+        
+        assertThat(lastBulkSlot).isAfter(LocalDateTime.now().plusSeconds(90));
+        assertThat(highSlot).isBefore(LocalDateTime.now().plusSeconds(2));
+    }
+    
+    private SmsRateLimiter limiter(double ratePerSecond, long maxWaitMillis) {
+        return new SmsRateLimiter(new String[]{"+15550000000"}, ratePerSecond, 1, maxWaitMillis, meterRegistry);
+    }
+}
@@ -0,0 +1,91 @@
+package com.enterprise.notification.service.dispatcher;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// GreenMail stands in for the SMTP provider
+class SmtpTransportPoolTest {
+    
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+    
+    private JavaMailSenderImpl mailSender;
+    private SimpleMeterRegistry meterRegistry;
+    private SmtpTransportPool pool;
+    
+    @BeforeEach
+    void setUp() {
+        mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(greenMail.getSmtp().getPort());
+        meterRegistry = new SimpleMeterRegistry();
+        
+        pool = new SmtpTransportPool(mailSender, meterRegistry);
+        ReflectionTestUtils.setField(pool, "connections", 2);
+        ReflectionTestUtils.setField(pool, "batchSize", 10);
+        ReflectionTestUtils.setField(pool, "queueCapacity", 1000);
+        ReflectionTestUtils.setField(pool, "idleTimeoutMillis", 30_000L);
+        pool.start();
+    }
+    
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        pool.stop();
+    }
+    
+    @Test
+    void deliversEveryQueuedMessageOverPooledConnections() throws Exception {
+        List<CompletableFuture<Void>> results = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            results.add(pool.send(message("user" + i + "@example.com", "Message " + i)));
+        }
+        CompletableFuture.allOf(results.toArray(CompletableFuture[]::new)).get(30, TimeUnit.SECONDS);
+        
+        assertThat(greenMail.getReceivedMessages()).hasSize(200);
+        assertThat(meterRegistry.find("notification.email.sent").counters().stream()
+            .mapToDouble(Counter::count)
+            .sum())
+            .isEqualTo(200.0);
+    }
+    
+    @Test
+    void reconnectsWhenTheServerDropsTheConnection() throws Exception {
+        pool.send(message("before@example.com", "Before")).get(10, TimeUnit.SECONDS);
+        
+        // Restarting the server closes every pooled connection underneath the workers
+        greenMail.reset();
+        pool.send(message("after@example.com", "After")).get(10, TimeUnit.SECONDS);
+        
+        assertThat(greenMail.getReceivedMessages())
+            .extracting(MimeMessage::getSubject)
+            .containsExactly("After");
+    }
+    
+    private MimeMessage message(String to, String subject) throws MessagingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, true);
+        helper.setFrom("noreply@example.com");
+        helper.setTo(to);
+        helper.setSubject(subject);
+        helper.setText("<p>" + subject + "</p>", true);
+        return message;
+    }
+}
@@ -0,0 +1,68 @@
+package com.enterprise.notification.service.dispatcher;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.util.Base64;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Signing one webhook payload: the pooled Mac with a cached key against the previous per-call
+// Mac.getInstance and key construction. See README "Benchmarks" for how to run.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class WebhookSignerBenchmark {
+    
+    private static final String SECRET = "whsec_0123456789abcdef0123456789abcdef";
+    
+    @Param({"512", "8192"})
+    private int payloadBytes;
+    
+    private byte[] payload;
+    private WebhookSigner signer;
+    private SecretKeySpec key;
+    
+    @Setup
+    public void setUp() {
+        payload = new byte[payloadBytes];
+        new Random(7).nextBytes(payload);
+        signer = new WebhookSigner(256);
+        key = WebhookSigner.prepareKey(SECRET);
+    }
+    
+    @Benchmark
+    public String pooledMacCachedKey() {
+        return signer.sign(key, payload);
+    }
+    
+    @Benchmark
+    public String newMacPerCall() throws Exception {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(SECRET.getBytes(), "HmacSHA256"));
+        return Base64.getEncoder().encodeToString(mac.doFinal(payload));
+    }
+    
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(WebhookSignerBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,63 @@
+package com.enterprise.notification.service.dispatcher;
+
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WebhookSignerTest {
+    
+    private static final byte[] PAYLOAD = "{\"id\":\"42\",\"status\":\"SENT\"}".getBytes(StandardCharsets.UTF_8);
+    
+    @Test
+    void matchesAFreshHmacSha256() throws Exception {
+        WebhookSigner signer = new WebhookSigner(4);
+        SecretKeySpec key = WebhookSigner.prepareKey("s3crét");
+        
+        assertThat(signer.sign(key, PAYLOAD)).isEqualTo(reference("s3crét", PAYLOAD));
+        // Second call reuses the pooled Mac, which must come back reset
+        assertThat(signer.sign(key, PAYLOAD)).isEqualTo(reference("s3crét", PAYLOAD));
+    }
+    
+    @Test
+    void pooledMacsAreReinitialisedPerKey() throws Exception {
+        WebhookSigner signer = new WebhookSigner(1);
+        
+        assertThat(signer.sign(WebhookSigner.prepareKey("first"), PAYLOAD)).isEqualTo(reference("first", PAYLOAD));
+        assertThat(signer.sign(WebhookSigner.prepareKey("second"), PAYLOAD)).isEqualTo(reference("second", PAYLOAD));
+    }
+    
+    @Test
+    void concurrentSignersDoNotShareMacState() throws Exception {
+        WebhookSigner signer = new WebhookSigner(8);
+        List<Callable<Boolean>> tasks = IntStream.range(0, 500)
+            .<Callable<Boolean>>mapToObj(i -> () -> {
+                String secret = "secret-" + (i % 7);
+                byte[] payload = ("payload-" + i).getBytes(StandardCharsets.UTF_8);
+                return signer.sign(WebhookSigner.prepareKey(secret), payload).equals(reference(secret, payload));
+            })
+            .toList();
+        
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (Future<Boolean> result : executor.invokeAll(tasks)) {
+                assertThat(result.get()).isTrue();
+            }
+        }
+    }
+    
+    private static String reference(String secret, byte[] payload) throws Exception {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        return Base64.getEncoder().encodeToString(mac.doFinal(payload));
+    }
+}